@@ -6,8 +6,9 @@ echo "Building Spring Boot application..."
 # Asegurar permisos de ejecución para Gradle
 chmod +x ./gradlew
 
-# Construir la aplicación
-./gradlew clean build -x test
+# Construir la aplicación y el archivo AppCDS (build/cds)
+./gradlew clean build cdsArchive -x test
 
 echo "Build completed successfully!"
 echo "JAR file created at: build/libs/mvpAM-0.0.1-SNAPSHOT.jar"
+echo "AppCDS layout created at: build/cds (app.jsa)"
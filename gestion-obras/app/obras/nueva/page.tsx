@@ -23,6 +23,7 @@ export default function NuevaObraPage() {
   const [planes, setPlanes] = useState<PlanProyecto[]>([])
   const [riesgos, setRiesgos] = useState<RiesgoTecnico[]>([])
   const [selectedDepartamento, setSelectedDepartamento] = useState<string>("")
+  const [nroExists, setNroExists] = useState(false)
 
   // Datos del formulario
   const [formData, setFormData] = useState({
@@ -73,6 +74,22 @@ export default function NuevaObraPage() {
     fetchData()
   }, [])
 
+  useEffect(() => {
+    const check = async () => {
+      if (!formData.nroObra) {
+        setNroExists(false)
+        return
+      }
+      try {
+        const res = await obrasApi.exists(parseInt(formData.nroObra))
+        setNroExists(res.data.success ? res.data.data : false)
+      } catch {
+        setNroExists(false)
+      }
+    }
+    check()
+  }, [formData.nroObra])
+
   const handleInputChange = (field: string, value: string | string[]) => {
     setFormData(prev => ({
       ...prev,
@@ -102,6 +119,11 @@ export default function NuevaObraPage() {
       return
     }
 
+    if (nroExists) {
+      alert('Ya existe una obra activa con ese número')
+      return
+    }
+
     if (!formData.nombreObra || formData.nombreObra.trim() === '') {
       alert('Por favor ingrese el nombre de la obra')
       return
@@ -239,6 +261,9 @@ export default function NuevaObraPage() {
                     placeholder="Ej: 1001"
                     required
                   />
+                  {nroExists && (
+                    <p className="text-sm text-red-600">Ya existe una obra activa con ese número</p>
+                  )}
                 </div>
 
                 <div>
@@ -380,7 +405,7 @@ export default function NuevaObraPage() {
                   <X className="mr-2 h-4 w-4" />
                   Cancelar
                 </Button>
-                <Button type="submit" disabled={saving}>
+                <Button type="submit" disabled={saving || nroExists}>
                   <Save className="mr-2 h-4 w-4" />
                   {saving ? 'Guardando...' : 'Crear Obra'}
                 </Button>
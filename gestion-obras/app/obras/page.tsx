@@ -10,10 +10,10 @@ import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@
 import { Plus, Search, Eye, Edit, Trash2, RefreshCcw } from "lucide-react"
 import Link from "next/link"
 import { obrasApi, departamentosApi, estadosObraApi } from "@/lib/api"
-import type { Obra, Departamento, EstadoObra } from "@/types"
+import type { ObraListItem, Departamento, EstadoObra } from "@/types"
 
 export default function ObrasPage() {
-  const [obras, setObras] = useState<Obra[]>([])
+  const [obras, setObras] = useState<ObraListItem[]>([])
   const [departamentos, setDepartamentos] = useState<Departamento[]>([])
   const [estados, setEstados] = useState<EstadoObra[]>([])
   const [loading, setLoading] = useState(true)
@@ -26,12 +26,6 @@ export default function ObrasPage() {
       try {
         setLoading(true)
 
-        // Obtener obras (incluyendo bajas)
-        const obrasResponse = await obrasApi.getAllWithBajas()
-        if (obrasResponse.data.content) {
-          setObras(obrasResponse.data.content)
-        }
-
         // Obtener departamentos
         const departamentosResponse = await departamentosApi.getAll()
         if (departamentosResponse.data.success) {
@@ -53,6 +47,30 @@ export default function ObrasPage() {
     fetchData()
   }, [])
 
+  // Sin filtros se listan todas (incluyendo bajas); con departamento o estado
+  // el filtrado lo hace el servidor sobre las obras activas
+  useEffect(() => {
+    const fetchObras = async () => {
+      try {
+        const filtrar = selectedDepartamento !== "all" || selectedEstado !== "all"
+        const obrasResponse = filtrar
+          ? await obrasApi.search({
+              departamentoId: selectedDepartamento !== "all" ? Number(selectedDepartamento) : undefined,
+              estadoId: selectedEstado !== "all" ? Number(selectedEstado) : undefined,
+              size: 2000,
+            })
+          : await obrasApi.getAllWithBajas()
+        if (obrasResponse.data.content) {
+          setObras(obrasResponse.data.content)
+        }
+      } catch (error) {
+        console.error('Error fetching obras:', error)
+      }
+    }
+
+    fetchObras()
+  }, [selectedDepartamento, selectedEstado])
+
   const formatCurrency = (value: number) => {
     return new Intl.NumberFormat("es-AR", {
       style: "currency",
@@ -66,19 +84,7 @@ export default function ObrasPage() {
       obra.nombreObra.toLowerCase().includes(searchTerm.toLowerCase()) ||
       obra.nroObra.toString().includes(searchTerm)
 
-    const matchesDepartamento =
-      selectedDepartamento === "" ||
-      selectedDepartamento === "all" ||
-      obra.localidad.departamento.id?.toString() === selectedDepartamento
-
-    const currentEstado = obra.obraEstadoObras?.find((e) => !e.fechaHoraFin)
-    const currentEstadoId = currentEstado?.estadoObra.id?.toString()
-    const matchesEstado =
-      selectedEstado === "" ||
-      selectedEstado === "all" ||
-      currentEstadoId === selectedEstado
-
-    return matchesSearch && matchesDepartamento && matchesEstado
+    return matchesSearch
   })
 
   const handleDeleteObra = async (id: number) => {
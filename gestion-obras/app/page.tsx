@@ -10,8 +10,8 @@ import { Badge } from "@/components/ui/badge"
 import { Button } from "@/components/ui/button"
 import { Building2, FileText, DollarSign, AlertTriangle, Eye, Edit } from "lucide-react"
 import Link from "next/link"
-import { dashboardApi, obrasApi, riesgosApi } from "@/lib/api"
-import type { DashboardStats, Obra, RiesgoTecnico } from "@/types"
+import { dashboardApi } from "@/lib/api"
+import type { DashboardStats, InversionPorRubro, ObraListItem, ObrasPorEstado, RiesgoResumen } from "@/types"
 
 export default function Dashboard() {
   const [stats, setStats] = useState<DashboardStats>({
@@ -20,8 +20,10 @@ export default function Dashboard() {
     inversionTotal: 0,
     riesgosPendientes: 0
   })
-  const [obrasRecientes, setObrasRecientes] = useState<Obra[]>([])
-  const [riesgosPendientes, setRiesgosPendientes] = useState<RiesgoTecnico[]>([])
+  const [obrasRecientes, setObrasRecientes] = useState<ObraListItem[]>([])
+  const [riesgosPendientes, setRiesgosPendientes] = useState<RiesgoResumen[]>([])
+  const [obrasPorEstado, setObrasPorEstado] = useState<ObrasPorEstado[]>([])
+  const [inversionPorRubro, setInversionPorRubro] = useState<InversionPorRubro[]>([])
   const [loading, setLoading] = useState(true)
 
   useEffect(() => {
@@ -29,22 +31,18 @@ export default function Dashboard() {
       try {
         setLoading(true)
 
-        // Obtener estadísticas del dashboard
-        const statsResponse = await dashboardApi.getStats()
-        if (statsResponse.data.success) {
-          setStats(statsResponse.data.data)
-        }
-
-        // Obtener obras recientes (primeras 2)
-        const obrasResponse = await obrasApi.getAll()
-        if (obrasResponse.data.content) {
-          setObrasRecientes(obrasResponse.data.content.slice(0, 2))
-        }
-
-        // Obtener riesgos pendientes (primeros 2)
-        const riesgosResponse = await riesgosApi.getAll()
-        if (riesgosResponse.data.content) {
-          setRiesgosPendientes(riesgosResponse.data.content.slice(0, 2))
+        // Todo el dashboard en un solo request (obras y riesgos: los 2 más recientes)
+        const response = await dashboardApi.getSummary(2)
+        if (response.data.success) {
+          const summary = response.data.data
+          if (summary.parcial) {
+            console.warn("Dashboard parcial:", summary.errores)
+          }
+          if (summary.stats) setStats(summary.stats)
+          setObrasPorEstado(summary.obrasPorEstado ?? [])
+          setInversionPorRubro(summary.inversionPorRubro ?? [])
+          setObrasRecientes(summary.obrasRecientes ?? [])
+          setRiesgosPendientes(summary.riesgosPendientes ?? [])
         }
       } catch (error) {
         console.error('Error fetching dashboard data:', error)
@@ -119,8 +117,8 @@ export default function Dashboard() {
 
         {/* Charts */}
         <div className="grid grid-cols-1 gap-6 lg:grid-cols-2">
-          <ObrasChart />
-          <InversionChart />
+          <ObrasChart data={obrasPorEstado} />
+          <InversionChart data={inversionPorRubro} />
         </div>
 
         {/* Recent Activity */}
@@ -174,7 +172,7 @@ export default function Dashboard() {
                         </div>
                         <h4 className="font-medium mt-2">{riesgo.naturalezaRiesgo}</h4>
                         <p className="text-sm text-gray-500 mt-1">
-                          Obra: {riesgo.obra?.nombreObra || "Sin obra asignada"}
+                          Obra: {riesgo.nombreObra || "Sin obra asignada"}
                         </p>
                       </div>
                       <Button size="sm" variant="outline" asChild>
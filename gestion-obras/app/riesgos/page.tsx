@@ -10,11 +10,11 @@ import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@
 import { Plus, Search, Eye, Edit, Trash2, AlertTriangle } from "lucide-react"
 import Link from "next/link"
 import { riesgosApi, obrasApi } from "@/lib/api"
-import type { RiesgoTecnico, Obra } from "@/types"
+import type { RiesgoTecnico, ObraListItem } from "@/types"
 
 export default function RiesgosPage() {
   const [riesgos, setRiesgos] = useState<RiesgoTecnico[]>([])
-  const [obras, setObras] = useState<Obra[]>([])
+  const [obras, setObras] = useState<ObraListItem[]>([])
   const [loading, setLoading] = useState(true)
   const [searchTerm, setSearchTerm] = useState("")
   const [selectedObra, setSelectedObra] = useState<string>("all")
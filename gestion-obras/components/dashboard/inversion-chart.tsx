@@ -3,8 +3,6 @@
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card"
 import { ChartContainer, ChartTooltip } from "@/components/ui/chart"
 import { PieChart, Pie, Cell, ResponsiveContainer } from "recharts"
-import { useEffect, useState } from "react"
-import { dashboardApi } from "@/lib/api"
 import type { InversionPorRubro } from "@/types"
 
 const COLORS = ["#0088FE", "#00C49F", "#FFBB28", "#FF8042", "#aa66cc", "#6699cc"]
@@ -15,22 +13,7 @@ const chartConfig = {
   },
 }
 
-export function InversionChart() {
-  const [data, setData] = useState<InversionPorRubro[]>([])
-
-  useEffect(() => {
-    const fetchData = async () => {
-      try {
-        const res = await dashboardApi.getInversionPorRubro()
-        if (res.data.success) {
-          setData(res.data.data)
-        }
-      } catch (e) {
-        console.error("Error fetching inversion por rubro", e)
-      }
-    }
-    fetchData()
-  }, [])
+export function InversionChart({ data }: { data: InversionPorRubro[] }) {
 
   const formatCurrency = (value: number) => {
     return new Intl.NumberFormat("es-AR", {
@@ -3,8 +3,6 @@
 import { Card, CardContent, CardDescription, CardHeader, CardTitle } from "@/components/ui/card"
 import { ChartContainer, ChartTooltip, ChartTooltipContent } from "@/components/ui/chart"
 import { BarChart, Bar, XAxis, YAxis, ResponsiveContainer } from "recharts"
-import { useEffect, useState } from "react"
-import { dashboardApi } from "@/lib/api"
 import type { ObrasPorEstado } from "@/types"
 
 const chartConfig = {
@@ -14,22 +12,7 @@ const chartConfig = {
   },
 }
 
-export function ObrasChart() {
-  const [data, setData] = useState<ObrasPorEstado[]>([])
-
-  useEffect(() => {
-    const fetchData = async () => {
-      try {
-        const res = await dashboardApi.getObrasPorEstado()
-        if (res.data.success) {
-          setData(res.data.data)
-        }
-      } catch (e) {
-        console.error("Error fetching obras por estado", e)
-      }
-    }
-    fetchData()
-  }, [])
+export function ObrasChart({ data }: { data: ObrasPorEstado[] }) {
   return (
     <Card>
       <CardHeader>
@@ -1,6 +1,8 @@
 import axios from "axios"
 import type {
   Obra,
+  ObraListItem,
+  ObraFiltros,
   PlanProyecto,
   RiesgoTecnico,
   ObraEstadoObra,
@@ -13,6 +15,7 @@ import type {
   DashboardStats,
   ObrasPorEstado,
   InversionPorRubro,
+  DashboardSummary,
   ObraPayload,
   ObraUpdatePayload,
 } from "@/types"
@@ -36,9 +39,12 @@ const api = axios.create({
 
 // Obras
 export const obrasApi = {
-  getAll: () => api.get<PaginatedResponse<Obra>>("/obras"),
-  getAllWithBajas: () => api.get<PaginatedResponse<Obra>>("/obras/all"),
+  getAll: () => api.get<PaginatedResponse<ObraListItem>>("/obras"),
+  getAllWithBajas: () => api.get<PaginatedResponse<ObraListItem>>("/obras/all"),
+  // Filtros resueltos en el servidor (solo obras activas)
+  search: (filtros: ObraFiltros) => api.get<PaginatedResponse<ObraListItem>>("/obras/search", { params: filtros }),
   getById: (id: number) => api.get<ApiResponse<Obra>>(`/obras/${id}`),
+  exists: (nro: number) => api.get<ApiResponse<boolean>>(`/obras/exists/${nro}`),
   create: (obra: ObraPayload) => api.post<ApiResponse<Obra>>("/obras", obra),
   update: (id: number, obra: ObraUpdatePayload) =>
     api.put<ApiResponse<Obra>>(`/obras/${id}`, obra),
@@ -113,6 +119,8 @@ export const rubrosApi = {
 
 // Dashboard
 export const dashboardApi = {
+  getSummary: (recientes = 2) =>
+    api.get<ApiResponse<DashboardSummary>>(`/dashboard/summary?recientes=${recientes}`),
   getStats: () => api.get<ApiResponse<DashboardStats>>("/dashboard/stats"),
   getObrasPorEstado: () =>
     api.get<ApiResponse<ObrasPorEstado[]>>("/dashboard/obras-por-estado"),
@@ -46,11 +46,45 @@ export interface Obra {
    * Historial de estados de la obra
    */
   obraEstadoObras?: ObraEstadoObra[]
+  /**
+   * Estado abierto actual (copia desnormalizada del historial, solo lectura)
+   */
+  estadoActual?: EstadoObra | null
+  fechaEstadoActual?: string | null
   obraRubros?: ObraRubro[]
   fechaAlta?: string
   fechaBaja?: string | null
 }
 
+/**
+ * Fila del listado de obras (/obras y /obras/all): proyección liviana con el
+ * estado actual y la cantidad de riesgos en lugar de las colecciones completas
+ */
+export interface ObraListItem {
+  id: number
+  nroObra: number
+  nombreObra: string
+  tiempoEjecucion: number
+  anioEjecucion: number
+  fechaInicioObra: string
+  fechaFinObra?: string | null
+  inversionFinal: number
+  localidad: {
+    id: number
+    nombreLocalidad: string
+    departamento: Pick<Departamento, "id" | "nombreDepartamento">
+  }
+  planProyecto?: Pick<PlanProyecto, "id" | "nombrePlanProyecto"> | null
+  estadoActual?: {
+    id: number
+    nombreEstadoObra: string
+    fechaHoraInicio: string
+  } | null
+  cantidadRiesgos: number
+  fechaAlta?: string
+  fechaBaja?: string | null
+}
+
 export interface PlanProyecto {
   id?: number
   nombrePlanProyecto: string
@@ -124,6 +158,23 @@ export interface PaginatedResponse<T> {
   totalPages: number
 }
 
+// Parámetros de GET /api/obras/search
+export interface ObraFiltros {
+  departamentoId?: number
+  localidadId?: number
+  anioDesde?: number
+  anioHasta?: number
+  inversionDesde?: number
+  inversionHasta?: number
+  estadoId?: number
+  rubroId?: number
+  prioridad?: Prioridad
+  riesgoId?: number
+  page?: number
+  size?: number
+  sort?: string
+}
+
 export interface DashboardStats {
   totalObras: number
   planesActivos: number
@@ -140,3 +191,20 @@ export interface InversionPorRubro {
   rubro: string
   inversion: number
 }
+
+export interface RiesgoResumen {
+  id: number
+  nroRiesgo: number
+  naturalezaRiesgo: string
+  nombreObra: string | null
+}
+
+export interface DashboardSummary {
+  stats: DashboardStats | null
+  obrasPorEstado: ObrasPorEstado[] | null
+  inversionPorRubro: InversionPorRubro[] | null
+  obrasRecientes: ObraListItem[] | null
+  riesgosPendientes: RiesgoResumen[] | null
+  parcial: boolean
+  errores: string[]
+}
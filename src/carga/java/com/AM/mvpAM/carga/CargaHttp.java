@@ -0,0 +1,119 @@
+package com.AM.mvpAM.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generador de carga HTTP contra una instancia ya levantada (./gradlew carga).
+ * Cada escenario corre con {@code carga.usuarios} usuarios virtuales (un hilo
+ * virtual cada uno) durante el calentamiento, que no se mide, y luego durante
+ * {@code carga.duracion}. Propiedades (-D):
+ * <ul>
+ *   <li>carga.url (http://localhost:8080)</li>
+ *   <li>carga.escenarios (dashboard,listado,alta,estados)</li>
+ *   <li>carga.usuarios por escenario (8)</li>
+ *   <li>carga.calentamiento (PT10S) y carga.duracion (PT60S)</li>
+ *   <li>carga.tasa: pedidos por segundo de cada usuario; 0 (por defecto) es
+ *       lazo cerrado, cada usuario espera la respuesta y sigue</li>
+ *   <li>carga.semilla (42), carga.reporte (directorio) y carga.umbrales (JSON,
+ *       por defecto carga-umbrales.json del classpath)</li>
+ * </ul>
+ * Termina con código 1 si se supera algún umbral.
+ */
+public final class CargaHttp {
+
+    private CargaHttp() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("carga.url", "http://localhost:8080");
+        List<Escenario> escenarios = new ArrayList<>();
+        for (String nombre : System.getProperty("carga.escenarios", "dashboard,listado,alta,estados").split(",")) {
+            escenarios.add(Escenario.valueOf(nombre.trim().toUpperCase(Locale.ROOT)));
+        }
+        int usuarios = Integer.getInteger("carga.usuarios", 8);
+        Duration calentamiento = Duration.parse(System.getProperty("carga.calentamiento", "PT10S"));
+        Duration duracion = Duration.parse(System.getProperty("carga.duracion", "PT60S"));
+        double tasa = Double.parseDouble(System.getProperty("carga.tasa", "0"));
+        long semilla = Long.getLong("carga.semilla", 42L);
+        Path directorio = Path.of(System.getProperty("carga.reporte", "build/reports/carga"));
+
+        ObjectMapper mapper = new ObjectMapper();
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Reporte reporte = new Reporte(mapper);
+        Map<String, Map<String, Double>> umbrales = reporte.leerUmbrales(System.getProperty("carga.umbrales"));
+
+        Datos datos = Datos.descubrir(new Cliente(http, mapper, url, new Metricas(), 0));
+        System.out.printf("[carga] %s escenarios=%s usuarios=%d calentamiento=%s duracion=%s tasa=%s paginas=%d obras-en-curso=%d%n",
+                url, escenarios, usuarios, calentamiento, duracion, tasa > 0 ? tasa + "/s" : "lazo cerrado",
+                datos.paginas(), datos.obrasEnCurso().size());
+
+        Metricas metricas = new Metricas();
+        long intervalo = tasa > 0 ? (long) (1_000_000_000L / tasa) : 0;
+        AtomicBoolean detener = new AtomicBoolean();
+        List<Future<?>> tareas = new ArrayList<>();
+        long inicioMedicion;
+        long finMedicion;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int n = 0;
+            for (Escenario escenario : escenarios) {
+                for (int u = 0; u < usuarios; u++) {
+                    Random random = new Random(semilla * 31 + n++);
+                    Cliente cliente = new Cliente(http, mapper, url, metricas, intervalo);
+                    tareas.add(executor.submit(() -> {
+                        while (!detener.get()) {
+                            escenario.iteracion(cliente, datos, random);
+                        }
+                    }));
+                }
+            }
+            Thread.sleep(calentamiento);
+            metricas.reiniciar();
+            inicioMedicion = System.nanoTime();
+            Thread.sleep(duracion);
+            finMedicion = System.nanoTime();
+            detener.set(true);
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+
+        double segundos = (finMedicion - inicioMedicion) / 1e9;
+        List<Metricas.Resumen> resumenes = metricas.resumir(segundos);
+        List<String> violaciones = reporte.violaciones(resumenes, umbrales);
+
+        for (Metricas.Resumen r : resumenes) {
+            System.out.printf(Locale.ROOT, "[carga] %-40s pedidos=%d errores=%d %.1f/s p50=%.2fms p95=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                    r.endpoint(), r.pedidos(), r.errores(), r.throughput(), r.p50(), r.p95(), r.p99(), r.p999(), r.max());
+        }
+        Map<String, Object> corrida = new LinkedHashMap<>();
+        corrida.put("url", url);
+        corrida.put("escenarios", escenarios.toString());
+        corrida.put("usuariosPorEscenario", usuarios);
+        corrida.put("tasaPorUsuario", tasa);
+        corrida.put("segundosMedidos", segundos);
+        reporte.escribir(directorio, corrida, resumenes, violaciones);
+        System.out.println("[carga] reporte en " + directorio.toAbsolutePath().resolve("index.html"));
+
+        if (!violaciones.isEmpty()) {
+            violaciones.forEach(v -> System.out.println("[carga] umbral superado: " + v));
+            System.exit(1);
+        }
+    }
+}
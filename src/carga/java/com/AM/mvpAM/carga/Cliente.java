@@ -0,0 +1,96 @@
+package com.AM.mvpAM.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cliente de un usuario virtual. Cada pedido se registra en las métricas bajo
+ * el nombre de su endpoint (método y ruta con variables, no la URL concreta).
+ * <p>
+ * Con {@code intervaloNanos > 0} los pedidos salen a ritmo fijo y la latencia
+ * se cuenta desde el instante en que el pedido debía salir, no desde que
+ * salió: si el servidor se traba, la espera acumulada aparece en los
+ * percentiles en vez de esconderse (omisión coordinada).
+ */
+final class Cliente {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper mapper;
+    private final String base;
+    private final Metricas metricas;
+    private final long intervaloNanos;
+    private long programado;
+
+    Cliente(HttpClient http, ObjectMapper mapper, String base, Metricas metricas, long intervaloNanos) {
+        this.http = http;
+        this.mapper = mapper;
+        this.base = base;
+        this.metricas = metricas;
+        this.intervaloNanos = intervaloNanos;
+    }
+
+    /** Cuerpo de la respuesta si fue 2xx; null si no. */
+    JsonNode get(String endpoint, String ruta) {
+        return enviar(endpoint, HttpRequest.newBuilder(URI.create(base + ruta)).timeout(TIMEOUT).GET().build());
+    }
+
+    JsonNode post(String endpoint, String ruta, Object cuerpo) {
+        try {
+            HttpRequest pedido = HttpRequest.newBuilder(URI.create(base + ruta))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(cuerpo)))
+                    .build();
+            return enviar(endpoint, pedido);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonNode enviar(String endpoint, HttpRequest pedido) {
+        long inicio = System.nanoTime();
+        if (intervaloNanos > 0) {
+            if (programado == 0) {
+                programado = inicio;
+            }
+            while (System.nanoTime() < programado) {
+                LockSupport.parkNanos(programado - System.nanoTime());
+            }
+            inicio = programado;
+            programado += intervaloNanos;
+        }
+        int status;
+        byte[] cuerpo = null;
+        try {
+            HttpResponse<byte[]> respuesta = http.send(pedido, HttpResponse.BodyHandlers.ofByteArray());
+            status = respuesta.statusCode();
+            cuerpo = respuesta.body();
+        } catch (IOException e) {
+            // Conexión rechazada, cortada o timeout: cuenta como error con status 0
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Pedido interrumpido", e);
+        }
+        metricas.registrar(endpoint, System.nanoTime() - inicio, status);
+        if (status < 200 || status >= 300 || cuerpo == null || cuerpo.length == 0) {
+            return null;
+        }
+        try {
+            return mapper.readTree(cuerpo);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.AM.mvpAM.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids que usan los escenarios, leídos de la API antes de empezar: páginas del
+ * listado, catálogos, obras no finalizadas (las únicas que admiten cambio de
+ * estado) y los estados entre los que alternan.
+ */
+record Datos(int paginas, List<Long> localidades, List<Long> planes, List<Long> riesgos,
+             List<Long> obrasEnCurso, List<Long> estadosTransicion, AtomicLong nroObra) {
+
+    private static final int OBRAS_EN_CURSO = 500;
+
+    static Datos descubrir(Cliente c) {
+        JsonNode listado = requerido(c.get("GET /api/obras", "/api/obras?page=0&size=10"), "/api/obras");
+        int paginas = Math.max(1, Math.min(listado.path("totalPages").asInt(), 1000));
+
+        List<Long> localidades = ids(requerido(c.get("GET /api/localidades", "/api/localidades"), "/api/localidades").path("data"));
+        List<Long> planes = ids(requerido(c.get("GET /api/planes", "/api/planes?size=100"), "/api/planes").path("content"));
+        List<Long> riesgos = ids(requerido(c.get("GET /api/riesgos", "/api/riesgos?size=100"), "/api/riesgos").path("content"));
+
+        List<Long> estados = new ArrayList<>();
+        for (JsonNode estado : requerido(c.get("GET /api/estados-obra", "/api/estados-obra"), "/api/estados-obra").path("data")) {
+            String nombre = estado.path("nombreEstadoObra").asText();
+            if (!"finalizada".equalsIgnoreCase(nombre)) {
+                estados.add(estado.path("id").asLong());
+            }
+        }
+
+        List<Long> enCurso = new ArrayList<>();
+        String after = "";
+        while (enCurso.size() < OBRAS_EN_CURSO) {
+            JsonNode pagina = requerido(c.get("GET /api/obras?limit", "/api/obras?limit=200&after=" + after), "/api/obras?limit");
+            for (JsonNode obra : pagina.path("content")) {
+                if (!"finalizada".equalsIgnoreCase(obra.path("estadoActual").path("nombreEstadoObra").asText())) {
+                    enCurso.add(obra.path("id").asLong());
+                }
+            }
+            if (!pagina.path("hasNext").asBoolean()) {
+                break;
+            }
+            after = pagina.path("nextCursor").asText();
+        }
+
+        if (localidades.isEmpty() || estados.isEmpty() || enCurso.isEmpty()) {
+            throw new IllegalStateException("La base no tiene localidades, estados u obras en curso: "
+                    + "levantar la aplicación con datos (perfil por defecto o seed)");
+        }
+        // Números nuevos en cada corrida, lejos de los existentes
+        return new Datos(paginas, localidades, planes, riesgos, enCurso, estados,
+                new AtomicLong(System.currentTimeMillis() * 1000));
+    }
+
+    long siguienteNroObra() {
+        return nroObra.incrementAndGet();
+    }
+
+    private static JsonNode requerido(JsonNode respuesta, String ruta) {
+        if (respuesta == null) {
+            throw new IllegalStateException("No se pudo leer " + ruta + ": ¿está levantada la aplicación?");
+        }
+        return respuesta;
+    }
+
+    private static List<Long> ids(JsonNode lista) {
+        List<Long> ids = new ArrayList<>();
+        lista.forEach(nodo -> ids.add(nodo.path("id").asLong()));
+        return ids;
+    }
+}
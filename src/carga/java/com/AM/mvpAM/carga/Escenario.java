@@ -0,0 +1,96 @@
+package com.AM.mvpAM.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Recorridos de un usuario, en el orden en que los hace el frontend. Cada
+ * usuario virtual repite la iteración de su escenario hasta que termina la
+ * prueba.
+ */
+enum Escenario {
+
+    /** Refresco del dashboard: resumen y los tres indicadores. */
+    DASHBOARD {
+        @Override
+        void iteracion(Cliente c, Datos d, Random r) {
+            c.get("GET /api/dashboard/summary", "/api/dashboard/summary?recientes=5");
+            c.get("GET /api/dashboard/stats", "/api/dashboard/stats");
+            c.get("GET /api/dashboard/obras-por-estado", "/api/dashboard/obras-por-estado");
+            c.get("GET /api/dashboard/inversion-por-rubro", "/api/dashboard/inversion-por-rubro");
+        }
+    },
+
+    /** Navegación del listado: página al azar, cursor, búsqueda filtrada y detalle. */
+    LISTADO {
+        @Override
+        void iteracion(Cliente c, Datos d, Random r) {
+            JsonNode pagina = c.get("GET /api/obras", "/api/obras?page=" + r.nextInt(d.paginas()) + "&size=10");
+            JsonNode cursor = c.get("GET /api/obras?limit", "/api/obras?limit=20");
+            if (cursor != null && cursor.path("hasNext").asBoolean()) {
+                c.get("GET /api/obras?limit", "/api/obras?limit=20&after=" + cursor.path("nextCursor").asText());
+            }
+            c.get("GET /api/obras/search", "/api/obras/search?localidadId=" + elegir(d.localidades(), r)
+                    + "&anioDesde=" + (2015 + r.nextInt(8)) + "&page=0&size=10");
+            List<Long> ids = new ArrayList<>();
+            if (pagina != null) {
+                pagina.path("content").forEach(obra -> ids.add(obra.path("id").asLong()));
+            }
+            for (int i = 0; i < 2 && !ids.isEmpty(); i++) {
+                c.get("GET /api/obras/{id}", "/api/obras/" + ids.remove(r.nextInt(ids.size())));
+            }
+        }
+    },
+
+    /** Alta desde el formulario: catálogos de los combos, chequeo del número y POST. */
+    ALTA {
+        @Override
+        void iteracion(Cliente c, Datos d, Random r) {
+            c.get("GET /api/localidades", "/api/localidades");
+            c.get("GET /api/planes", "/api/planes?size=100");
+            c.get("GET /api/riesgos", "/api/riesgos?size=100");
+            long nro = d.siguienteNroObra();
+            c.get("GET /api/obras/exists/{nro}", "/api/obras/exists/" + nro);
+
+            Map<String, Object> obra = new LinkedHashMap<>();
+            obra.put("nroObra", nro);
+            obra.put("nombreObra", "Obra de carga " + nro);
+            obra.put("tiempoEjecucion", 3 + r.nextInt(34));
+            obra.put("anioEjecucion", 2020 + r.nextInt(6));
+            obra.put("fechaInicioObra", "2024-0" + (1 + r.nextInt(9)) + "-15");
+            obra.put("inversionFinal", 10_000 + r.nextInt(5_000_000));
+            obra.put("localidad", Map.of("id", elegir(d.localidades(), r)));
+            if (!d.planes().isEmpty()) {
+                obra.put("planProyecto", Map.of("id", elegir(d.planes(), r)));
+            }
+            if (!d.riesgos().isEmpty()) {
+                obra.put("obraRiesgos", List.of(Map.of("riesgoTecnico", Map.of("id", elegir(d.riesgos(), r)))));
+            }
+            c.post("POST /api/obras", "/api/obras", obra);
+        }
+    },
+
+    /** Transiciones de estado intercaladas con lecturas del detalle, el listado y el dashboard. */
+    ESTADOS {
+        @Override
+        void iteracion(Cliente c, Datos d, Random r) {
+            long id = elegir(d.obrasEnCurso(), r);
+            c.get("GET /api/obras/{id}", "/api/obras/" + id);
+            c.post("POST /api/obras/{id}/estado", "/api/obras/" + id + "/estado",
+                    Map.of("estadoId", elegir(d.estadosTransicion(), r)));
+            c.get("GET /api/obras", "/api/obras?page=0&size=10");
+            c.get("GET /api/dashboard/stats", "/api/dashboard/stats");
+        }
+    };
+
+    abstract void iteracion(Cliente c, Datos d, Random r);
+
+    private static long elegir(List<Long> ids, Random r) {
+        return ids.get(r.nextInt(ids.size()));
+    }
+}
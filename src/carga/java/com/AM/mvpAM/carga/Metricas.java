@@ -0,0 +1,82 @@
+package com.AM.mvpAM.carga;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias y códigos de respuesta por endpoint. Cada endpoint tiene un
+ * Recorder de HdrHistogram (registro sin bloqueo desde muchos hilos, tres
+ * dígitos significativos, en nanosegundos). {@link #reiniciar()} descarta
+ * lo medido durante el calentamiento.
+ */
+final class Metricas {
+
+    private final Map<String, PorEndpoint> endpoints = new ConcurrentHashMap<>();
+
+    void registrar(String endpoint, long nanos, int status) {
+        PorEndpoint e = endpoints.computeIfAbsent(endpoint, k -> new PorEndpoint());
+        e.recorder.recordValue(nanos);
+        e.estados.computeIfAbsent(status, k -> new LongAdder()).increment();
+    }
+
+    void reiniciar() {
+        for (PorEndpoint e : endpoints.values()) {
+            e.recorder.reset();
+            e.estados.clear();
+        }
+    }
+
+    /** Resumen de lo registrado desde el último reinicio, sobre {@code segundos} de medición. */
+    List<Resumen> resumir(double segundos) {
+        Map<String, PorEndpoint> ordenados = new TreeMap<>(endpoints);
+        return ordenados.entrySet().stream().map(entrada -> {
+            Histogram h = entrada.getValue().recorder.getIntervalHistogram();
+            Map<Integer, Long> estados = new TreeMap<>();
+            entrada.getValue().estados.forEach((status, cantidad) -> estados.put(status, cantidad.sum()));
+            long errores = estados.entrySet().stream()
+                    .filter(s -> s.getKey() < 200 || s.getKey() >= 300)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            long pedidos = h.getTotalCount();
+            return new Resumen(entrada.getKey(), pedidos, errores,
+                    pedidos == 0 ? 0 : (double) errores / pedidos,
+                    pedidos / segundos,
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(95)),
+                    ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)),
+                    ms(h.getMaxValue()), estados);
+        }).toList();
+    }
+
+    private static double ms(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    private static final class PorEndpoint {
+        final Recorder recorder = new Recorder(3);
+        final Map<Integer, LongAdder> estados = new ConcurrentHashMap<>();
+    }
+
+    /** Latencias en milisegundos; throughput en pedidos por segundo. */
+    record Resumen(String endpoint, long pedidos, long errores, double ratioErrores, double throughput,
+                   double p50, double p95, double p99, double p999, double max, Map<Integer, Long> estados) {
+
+        double metrica(String nombre) {
+            return switch (nombre) {
+                case "p50" -> p50;
+                case "p95" -> p95;
+                case "p99" -> p99;
+                case "p999" -> p999;
+                case "max" -> max;
+                case "errores" -> ratioErrores;
+                case "throughput" -> throughput;
+                default -> throw new IllegalArgumentException("Métrica desconocida en los umbrales: " + nombre);
+            };
+        }
+    }
+}
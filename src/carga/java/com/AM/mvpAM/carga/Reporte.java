@@ -0,0 +1,111 @@
+package com.AM.mvpAM.carga;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reporte de una corrida (resultado.json e index.html) y control de umbrales.
+ * <p>
+ * Los umbrales son un JSON de endpoint a métricas máximas; {@code "*"} vale
+ * para todos los endpoints y lo pisa la entrada del endpoint:
+ * <pre>
+ *   { "*": { "p99": 500, "errores": 0.01 },
+ *     "GET /api/dashboard/stats": { "p99": 50 } }
+ * </pre>
+ * Métricas: p50, p95, p99, p999 y max en milisegundos, errores como fracción
+ * de los pedidos; throughput es un mínimo (pedidos por segundo), no un máximo.
+ */
+final class Reporte {
+
+    private static final String TODOS = "*";
+
+    private final ObjectMapper mapper;
+
+    Reporte(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    Map<String, Map<String, Double>> leerUmbrales(String archivo) throws IOException {
+        TypeReference<Map<String, Map<String, Double>>> tipo = new TypeReference<>() {
+        };
+        if (archivo != null && !archivo.isBlank()) {
+            return mapper.readValue(Path.of(archivo).toFile(), tipo);
+        }
+        try (InputStream in = Reporte.class.getResourceAsStream("/carga-umbrales.json")) {
+            return in == null ? Map.of() : mapper.readValue(in, tipo);
+        }
+    }
+
+    /** Umbrales superados, uno por línea legible; vacío si la corrida pasa. */
+    List<String> violaciones(List<Metricas.Resumen> resumenes, Map<String, Map<String, Double>> umbrales) {
+        List<String> violaciones = new ArrayList<>();
+        for (Metricas.Resumen r : resumenes) {
+            Map<String, Double> limites = new LinkedHashMap<>(umbrales.getOrDefault(TODOS, Map.of()));
+            limites.putAll(umbrales.getOrDefault(r.endpoint(), Map.of()));
+            limites.forEach((metrica, limite) -> {
+                double valor = r.metrica(metrica);
+                boolean supera = "throughput".equals(metrica) ? valor < limite : valor > limite;
+                if (supera) {
+                    violaciones.add(String.format("%s %s=%.3f (umbral %s)", r.endpoint(), metrica, valor, limite));
+                }
+            });
+        }
+        return violaciones;
+    }
+
+    void escribir(Path directorio, Map<String, Object> corrida, List<Metricas.Resumen> resumenes,
+                  List<String> violaciones) throws IOException {
+        Files.createDirectories(directorio);
+        Map<String, Object> json = new LinkedHashMap<>(corrida);
+        json.put("fecha", LocalDateTime.now().toString());
+        json.put("endpoints", resumenes);
+        json.put("violaciones", violaciones);
+        mapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(directorio.resolve("resultado.json").toFile(), json);
+        Files.writeString(directorio.resolve("index.html"), html(corrida, resumenes, violaciones));
+    }
+
+    private static String html(Map<String, Object> corrida, List<Metricas.Resumen> resumenes, List<String> violaciones) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<!DOCTYPE html><html lang=\"es\"><head><meta charset=\"utf-8\"><title>Prueba de carga</title>")
+                .append("<style>body{font-family:sans-serif;margin:2em}table{border-collapse:collapse}")
+                .append("th,td{border:1px solid #ccc;padding:4px 8px;text-align:right}td:first-child{text-align:left}")
+                .append(".mal{background:#fdd}</style></head><body><h1>Prueba de carga</h1><p>");
+        corrida.forEach((clave, valor) -> sb.append(escapar(clave)).append(": ").append(escapar(String.valueOf(valor))).append("<br>"));
+        sb.append("</p><table><tr><th>Endpoint</th><th>Pedidos</th><th>Errores</th><th>Pedidos/s</th>")
+                .append("<th>p50 ms</th><th>p95 ms</th><th>p99 ms</th><th>p99.9 ms</th><th>Máx ms</th><th>Códigos</th></tr>");
+        for (Metricas.Resumen r : resumenes) {
+            boolean mal = violaciones.stream().anyMatch(v -> v.startsWith(r.endpoint() + " "));
+            sb.append(mal ? "<tr class=\"mal\">" : "<tr>")
+                    .append("<td>").append(escapar(r.endpoint())).append("</td>")
+                    .append("<td>").append(r.pedidos()).append("</td>")
+                    .append("<td>").append(r.errores()).append("</td>")
+                    .append(String.format("<td>%.1f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>",
+                            r.throughput(), r.p50(), r.p95(), r.p99(), r.p999(), r.max()))
+                    .append("<td>").append(r.estados()).append("</td></tr>");
+        }
+        sb.append("</table>");
+        if (violaciones.isEmpty()) {
+            sb.append("<p>Sin umbrales superados.</p>");
+        } else {
+            sb.append("<h2>Umbrales superados</h2><ul>");
+            violaciones.forEach(v -> sb.append("<li>").append(escapar(v)).append("</li>"));
+            sb.append("</ul>");
+        }
+        return sb.append("</body></html>").toString();
+    }
+
+    private static String escapar(String texto) {
+        return texto.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,78 @@
+package com.AM.mvpAM.jmh;
+
+import com.AM.mvpAM.dto.DashboardStats;
+import com.AM.mvpAM.dto.InversionPorRubroDTO;
+import com.AM.mvpAM.dto.ObrasPorEstadoDTO;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.service.DashboardAggregates;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecturas del listado y del dashboard: una página del principio y una del
+ * medio de las obras activas, las dos agregaciones por consulta y las
+ * estadísticas, tanto como las sirve el endpoint (instantánea en memoria)
+ * como recalculadas desde la base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class ConsultasBenchmark {
+
+    private static final int TAMANIO_PAGINA = 20;
+
+    private ObraRepository obraRepository;
+    private DashboardAggregates dashboardAggregates;
+    private PageRequest primeraPagina;
+    private PageRequest paginaDelMedio;
+
+    @Setup(Level.Trial)
+    public void preparar(ContextoSembrado contexto) {
+        obraRepository = contexto.bean(ObraRepository.class);
+        dashboardAggregates = contexto.bean(DashboardAggregates.class);
+        Sort orden = Sort.by("id");
+        primeraPagina = PageRequest.of(0, TAMANIO_PAGINA, orden);
+        int paginas = (int) (obraRepository.countByFechaBajaIsNull() / TAMANIO_PAGINA);
+        paginaDelMedio = PageRequest.of(paginas / 2, TAMANIO_PAGINA, orden);
+    }
+
+    @Benchmark
+    public Page<Obra> primeraPaginaActivas() {
+        return obraRepository.findByFechaBajaIsNull(primeraPagina);
+    }
+
+    @Benchmark
+    public Page<Obra> paginaDelMedioActivas() {
+        return obraRepository.findByFechaBajaIsNull(paginaDelMedio);
+    }
+
+    @Benchmark
+    public List<InversionPorRubroDTO> sumInversionPorRubro() {
+        return obraRepository.sumInversionPorRubro();
+    }
+
+    @Benchmark
+    public List<ObrasPorEstadoDTO> countObrasPorEstado() {
+        return obraRepository.countObrasPorEstado();
+    }
+
+    @Benchmark
+    public DashboardStats dashboardStats() {
+        return dashboardAggregates.getStats();
+    }
+
+    @Benchmark
+    public DashboardStats dashboardStatsRecalculadas() {
+        dashboardAggregates.reconstruir();
+        return dashboardAggregates.getStats();
+    }
+}
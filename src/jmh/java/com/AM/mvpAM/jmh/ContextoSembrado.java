@@ -0,0 +1,60 @@
+package com.AM.mvpAM.jmh;
+
+import com.AM.mvpAM.MvpAmApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Contexto de la aplicación sin servidor web, sobre una H2 en memoria que el
+ * generador (perfil seed) puebla con {@code obras} obras al arrancar. Se
+ * arranca una vez por fork y parámetro; la semilla es fija, así que cada
+ * commit mide sobre los mismos datos.
+ */
+@State(Scope.Benchmark)
+public class ContextoSembrado {
+
+    @Param({"10000", "100000"})
+    public int obras;
+
+    private ConfigurableApplicationContext contexto;
+
+    @Setup(Level.Trial)
+    public void arrancar() {
+        long inicio = System.nanoTime();
+        contexto = new SpringApplicationBuilder(MvpAmApplication.class)
+                .profiles("seed")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "seed.obras=" + obras,
+                        "seed.semilla=42")
+                .run();
+        System.out.printf("Contexto con %d obras listo en %.1fs%n", obras, (System.nanoTime() - inicio) / 1e9);
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    public <T> T bean(Class<T> tipo) {
+        return contexto.getBean(tipo);
+    }
+
+    /** Ids que devuelve una consulta SQL directa (para elegir obras y catálogos). */
+    public List<Long> ids(String sql) {
+        return bean(JdbcTemplate.class).queryForList(sql, Long.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.AM.mvpAM.jmh;
+
+import com.AM.mvpAM.entities.*;
+import com.AM.mvpAM.service.ObraService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminos de escritura, de a un hilo: alta completa de una obra (validación,
+ * referencias, dos riesgos y estado inicial) y cambio de estado, que recorre
+ * las obras no finalizadas alternando entre Planificacion y Ejecucion.
+ * Cada invocación deja filas nuevas: la base crece durante la medición, como
+ * en uso real.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class EscrituraBenchmark {
+
+    // Lejos de los números del generador y de los datos de ejemplo
+    private static final long NRO_OBRA_BASE = 50_000_000L;
+    private static final int OBRAS_EN_ROTACION = 1000;
+
+    private ObraService obraService;
+    private long siguienteNro = NRO_OBRA_BASE;
+    private Long localidadId;
+    private Long planId;
+    private List<Long> riesgosIds;
+    private List<Long> obrasIds;
+    private Long planificacionId;
+    private Long ejecucionId;
+    private int cambios;
+
+    @Setup(Level.Trial)
+    public void preparar(ContextoSembrado contexto) {
+        obraService = contexto.bean(ObraService.class);
+        localidadId = contexto.ids("SELECT id FROM localidad WHERE fecha_baja IS NULL ORDER BY id LIMIT 1").get(0);
+        planId = contexto.ids("SELECT id FROM plan_proyecto WHERE fecha_baja IS NULL ORDER BY id LIMIT 1").get(0);
+        riesgosIds = contexto.ids("SELECT id FROM riesgo_tecnico WHERE fecha_baja IS NULL ORDER BY id LIMIT 2");
+        planificacionId = estado(contexto, "planificacion");
+        ejecucionId = estado(contexto, "ejecucion");
+        obrasIds = contexto.ids("SELECT o.id FROM obra o JOIN estado_obra e ON e.id = o.estado_actual_id "
+                + "WHERE o.fecha_baja IS NULL AND LOWER(e.nombre_estado_obra) <> 'finalizada' "
+                + "ORDER BY o.id LIMIT " + OBRAS_EN_ROTACION);
+    }
+
+    @Benchmark
+    public Obra crear() {
+        Obra obra = new Obra();
+        obra.setNroObra(siguienteNro++);
+        obra.setNombreObra("Obra JMH " + obra.getNroObra());
+        obra.setTiempoEjecucion(12);
+        obra.setAnioEjecucion(2024);
+        obra.setFechaInicioObra(LocalDate.of(2024, 3, 1));
+        obra.setInversionFinal(new BigDecimal("1250000.00"));
+        obra.setLocalidad(referencia(new Localidad(), localidadId));
+        obra.setPlanProyecto(referencia(new PlanProyecto(), planId));
+        for (Long riesgoId : riesgosIds) {
+            ObraRiesgo vinculo = new ObraRiesgo();
+            vinculo.setRiesgoTecnico(referencia(new RiesgoTecnico(), riesgoId));
+            obra.getObraRiesgos().add(vinculo);
+        }
+        return obraService.crear(obra);
+    }
+
+    @Benchmark
+    public Optional<ObraEstadoObra> cambiarEstado() {
+        int i = cambios++;
+        Long obraId = obrasIds.get(i % obrasIds.size());
+        // Cada vuelta completa sobre las obras invierte el estado destino
+        Long estadoId = (i / obrasIds.size()) % 2 == 0 ? ejecucionId : planificacionId;
+        return obraService.cambiarEstado(obraId, estadoId);
+    }
+
+    private static Long estado(ContextoSembrado contexto, String nombre) {
+        return contexto.ids("SELECT id FROM estado_obra WHERE fecha_baja IS NULL AND LOWER(nombre_estado_obra) = '"
+                + nombre + "' ORDER BY id LIMIT 1").get(0);
+    }
+
+    private static <T extends Base> T referencia(T entidad, Long id) {
+        entidad.setId(id);
+        return entidad;
+    }
+}
@@ -0,0 +1,41 @@
+package com.AM.mvpAM.jmh;
+
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.service.ObraService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con el ObjectMapper de la aplicación del detalle de una obra
+ * tal como lo arma ObraService.buscar: referencias, historial de estados,
+ * riesgos y rubros. Se elige la obra activa con plan y más filas vinculadas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class SerializacionBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Obra obra;
+
+    @Setup(Level.Trial)
+    public void preparar(ContextoSembrado contexto) {
+        objectMapper = contexto.bean(ObjectMapper.class);
+        Long id = contexto.ids("SELECT o.id FROM obra o WHERE o.fecha_baja IS NULL AND o.plan_proyecto_id IS NOT NULL "
+                + "ORDER BY (SELECT COUNT(*) FROM obra_estado_obra e WHERE e.obra_id = o.id) "
+                + "+ (SELECT COUNT(*) FROM obra_riesgo r WHERE r.obra_id = o.id) "
+                + "+ (SELECT COUNT(*) FROM obra_rubro r WHERE r.obra_id = o.id) DESC, o.id LIMIT 1").get(0);
+        obra = contexto.bean(ObraService.class).buscar(id).orElseThrow();
+    }
+
+    @Benchmark
+    public byte[] obraCompleta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(obra);
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.AM.mvpAM.entities.*;
 import com.AM.mvpAM.enums.Prioridad;
@@ -15,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @SpringBootApplication
+@EnableScheduling
 public class MvpAmApplication {
 
         public static void main(String[] args) {
@@ -22,7 +24,7 @@ public class MvpAmApplication {
         }
 
         // Este método se ejecuta al iniciar la aplicación y carga datos de ejemplo
-        // en la base de datos H2 en memoria.
+        // cuando la base está vacía (siempre en memoria; en archivo, sólo la primera vez).
         @Bean
         @Profile("!test")
         CommandLineRunner loadData(
@@ -37,6 +39,11 @@ public class MvpAmApplication {
                         ObraRiesgoRepository obraRiesgoRepo,
                         RiesgoTecnicoRepository riesgoTecnicoRepo) {
                 return args -> {
+                        if (departamentoRepo.count() > 0 || obraRepo.count() > 0) {
+                                System.out.println("La base ya tiene datos: se omite la carga de ejemplo");
+                                return;
+                        }
+
                         // Departamentos y Localidades
                         Departamento d1 = new Departamento();
                         d1.setNombreDepartamento("New York State");
@@ -0,0 +1,44 @@
+package com.AM.mvpAM.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Tamaño del pool de Hikari. Si no se fija spring.datasource.hikari.maximum-pool-size
+ * se usa 2 * núcleos + 1: con hilos virtuales la cantidad de hilos deja de
+ * acotar la concurrencia, así que el pool se dimensiona por lo que la base
+ * aguanta y no por la cantidad de requests. El pool es fijo (minimumIdle = max)
+ * para no abrir conexiones en medio de un pico.
+ */
+@Configuration
+public class ConnectionPoolConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolConfig.class);
+
+    static final String MAX_POOL_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+
+    public static int tamanioPorDefecto() {
+        return Runtime.getRuntime().availableProcessors() * 2 + 1;
+    }
+
+    @Bean
+    static BeanPostProcessor hikariPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && !environment.containsProperty(MAX_POOL_PROPERTY)) {
+                    int tamanio = tamanioPorDefecto();
+                    hikari.setMaximumPoolSize(tamanio);
+                    hikari.setMinimumIdle(tamanio);
+                    log.info("Pool de conexiones: {} conexiones", tamanio);
+                }
+                return bean;
+            }
+        };
+    }
+}
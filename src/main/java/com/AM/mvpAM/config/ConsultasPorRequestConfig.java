@@ -0,0 +1,102 @@
+package com.AM.mvpAM.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.IOException;
+
+/**
+ * Cantidad de sentencias SQL por request de /api/**, para que un N+1 no
+ * llegue a producción sin que nadie lo note:
+ * <ul>
+ *   <li>con más de {@code sql.contador.umbral} sentencias se loguea un
+ *       warning con el patrón que más se repitió;</li>
+ *   <li>con {@code sql.contador.header=true} (perfil por defecto, no en prod)
+ *       la cantidad viaja en el header {@value #HEADER}. Se escribe antes del
+ *       cuerpo: las respuestas en streaming no lo llevan.</li>
+ * </ul>
+ * El inspector se registra sólo si no hay otro configurado por propiedad
+ * (PlanesDeConsultaTest usa el suyo).
+ */
+@Configuration
+public class ConsultasPorRequestConfig {
+
+    public static final String HEADER = "X-Sql-Count";
+
+    @Bean
+    HibernatePropertiesCustomizer contadorSqlInspector() {
+        return propiedades -> propiedades.putIfAbsent(AvailableSettings.STATEMENT_INSPECTOR, new ConsultasSql.Inspector());
+    }
+
+    @Bean
+    ContadorPorRequest contadorPorRequest(@Value("${sql.contador.umbral:20}") int umbral) {
+        return new ContadorPorRequest(umbral);
+    }
+
+    static class ContadorPorRequest extends OncePerRequestFilter {
+
+        private static final Logger log = LoggerFactory.getLogger(ContadorPorRequest.class);
+
+        private final int umbral;
+
+        ContadorPorRequest(int umbral) {
+            this.umbral = umbral;
+        }
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            return !request.getRequestURI().startsWith("/api/");
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws ServletException, IOException {
+            try (ConsultasSql.Contador contador = ConsultasSql.iniciar()) {
+                chain.doFilter(request, response);
+                if (contador.cantidad() > umbral) {
+                    contador.patronMasRepetido().ifPresent(patron -> log.warn(
+                            "{} {}: {} sentencias SQL (umbral {}); la más repetida, {} veces: {}",
+                            request.getMethod(), request.getRequestURI(), contador.cantidad(), umbral,
+                            patron.getValue(), patron.getKey()));
+                }
+            }
+        }
+    }
+
+    @ControllerAdvice
+    @ConditionalOnProperty(name = "sql.contador.header", havingValue = "true")
+    static class HeaderContadorSql implements ResponseBodyAdvice<Object> {
+
+        @Override
+        public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+            return true;
+        }
+
+        @Override
+        public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                      Class<? extends HttpMessageConverter<?>> converterType,
+                                      ServerHttpRequest request, ServerHttpResponse response) {
+            ConsultasSql.actual().ifPresent(contador ->
+                    response.getHeaders().set(HEADER, String.valueOf(contador.cantidad())));
+            return body;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.AM.mvpAM.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Conteo de las sentencias SQL que Hibernate ejecuta en el hilo actual.
+ * {@link Inspector} es el statement_inspector de Hibernate y suma cada
+ * sentencia en los contadores abiertos con {@link #iniciar()}; pueden
+ * anidarse (el filtro por request y un assertQueryCount en un test cuentan
+ * a la vez). Sólo ve el SQL que pasa por Hibernate, no el de JdbcTemplate.
+ * <p>
+ * Además del total, cada contador agrupa las sentencias por patrón (listas
+ * de parámetros y literales colapsados): un patrón que se repite muchas
+ * veces en un mismo request es la firma de un N+1.
+ */
+public final class ConsultasSql {
+
+    private static final ThreadLocal<List<Contador>> ACTIVOS = ThreadLocal.withInitial(List::of);
+
+    private static final Pattern LISTA_PARAMETROS = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMERO = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    // Topes por contador, para que una importación masiva no acumule memoria
+    private static final int MAX_PATRONES = 256;
+    private static final int MAX_SENTENCIAS = 1000;
+
+    private ConsultasSql() {
+    }
+
+    /** Abre un contador en el hilo actual; se cierra con try-with-resources. */
+    public static Contador iniciar() {
+        List<Contador> anteriores = ACTIVOS.get();
+        Contador contador = new Contador(anteriores);
+        List<Contador> activos = new ArrayList<>(anteriores);
+        activos.add(contador);
+        ACTIVOS.set(List.copyOf(activos));
+        return contador;
+    }
+
+    /** El contador más interno abierto en este hilo, si hay. */
+    public static Optional<Contador> actual() {
+        List<Contador> activos = ACTIVOS.get();
+        return activos.isEmpty() ? Optional.empty() : Optional.of(activos.get(activos.size() - 1));
+    }
+
+    /**
+     * Envuelve una tarea que va a correr en otro hilo para que sus sentencias
+     * se sumen en los contadores abiertos al momento de crearla.
+     */
+    public static <T> Callable<T> propagar(Callable<T> tarea) {
+        List<Contador> capturados = ACTIVOS.get();
+        if (capturados.isEmpty()) {
+            return tarea;
+        }
+        return () -> {
+            List<Contador> previos = ACTIVOS.get();
+            ACTIVOS.set(capturados);
+            try {
+                return tarea.call();
+            } finally {
+                ACTIVOS.set(previos);
+            }
+        };
+    }
+
+    static String patron(String sql) {
+        String patron = TEXTO.matcher(sql).replaceAll("?");
+        patron = NUMERO.matcher(patron).replaceAll("?");
+        patron = LISTA_PARAMETROS.matcher(patron).replaceAll("(?...)");
+        return ESPACIOS.matcher(patron).replaceAll(" ").trim();
+    }
+
+    /** Registrado como hibernate.session_factory.statement_inspector (ver ConsultasPorRequestConfig). */
+    public static class Inspector implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            List<Contador> activos = ACTIVOS.get();
+            for (int i = 0; i < activos.size(); i++) {
+                activos.get(i).registrar(sql);
+            }
+            return sql;
+        }
+    }
+
+    public static final class Contador implements AutoCloseable {
+
+        private final List<Contador> anteriores;
+        private final AtomicInteger cantidad = new AtomicInteger();
+        private final Map<String, AtomicInteger> porPatron = new ConcurrentHashMap<>();
+        private final List<String> sentencias = new ArrayList<>();
+
+        private Contador(List<Contador> anteriores) {
+            this.anteriores = anteriores;
+        }
+
+        void registrar(String sql) {
+            cantidad.incrementAndGet();
+            synchronized (sentencias) {
+                if (sentencias.size() < MAX_SENTENCIAS) {
+                    sentencias.add(sql);
+                }
+            }
+            String patron = patron(sql);
+            AtomicInteger veces = porPatron.get(patron);
+            if (veces == null && porPatron.size() < MAX_PATRONES) {
+                veces = porPatron.computeIfAbsent(patron, k -> new AtomicInteger());
+            }
+            if (veces != null) {
+                veces.incrementAndGet();
+            }
+        }
+
+        public int cantidad() {
+            return cantidad.get();
+        }
+
+        /** Sentencias en el orden en que se ejecutaron (las primeras MAX_SENTENCIAS). */
+        public List<String> sentencias() {
+            synchronized (sentencias) {
+                return List.copyOf(sentencias);
+            }
+        }
+
+        /** El patrón que más se repitió y cuántas veces; vacío si no hubo sentencias. */
+        public Optional<Map.Entry<String, Integer>> patronMasRepetido() {
+            return porPatron.entrySet().stream()
+                    .map(e -> Map.entry(e.getKey(), e.getValue().get()))
+                    .max(Comparator.comparingInt(Map.Entry::getValue));
+        }
+
+        @Override
+        public void close() {
+            ACTIVOS.set(anteriores);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.AM.mvpAM.config;
+
+import com.AM.mvpAM.dto.ApiResponse;
+import com.AM.mvpAM.service.DashboardSummaryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Con hilos virtuales Tomcat deja de limitar cuántos requests corren a la vez,
+ * y miles de hilos terminarían esperando (y fallando) en getConnection() de
+ * Hikari. Este filtro deja pasar a /api/** tantos requests como conexiones
+ * tenga el pool; el resto espera en el semáforo y, si no consigue lugar a
+ * tiempo, recibe 503 con Retry-After en vez de un timeout de conexión.
+ * <p>
+ * El permiso se devuelve cuando la respuesta termina de verdad: en las
+ * respuestas asincrónicas (StreamingResponseBody de /api/obras/export) la
+ * conexión sigue en uso después de que vuelve el handler, así que se libera
+ * desde un AsyncListener. El resumen del dashboard consulta en paralelo y
+ * toma {@link DashboardSummaryService#CONEXIONES} permisos.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class JdbcConcurrencyGuard extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcConcurrencyGuard.class);
+
+    private static final String RESUMEN = "/api/dashboard/summary";
+
+    private final Semaphore permisos;
+    private final int total;
+    private final Duration espera;
+    private final ObjectMapper objectMapper;
+
+    public JdbcConcurrencyGuard(DataSource dataSource,
+                                ObjectMapper objectMapper,
+                                @Value("${db.guard.permisos:0}") int permisos,
+                                @Value("${db.guard.espera:PT5S}") Duration espera) {
+        if (permisos <= 0) {
+            permisos = dataSource instanceof HikariDataSource hikari
+                    ? hikari.getMaximumPoolSize()
+                    : ConnectionPoolConfig.tamanioPorDefecto();
+        }
+        this.permisos = new Semaphore(permisos, true);
+        this.total = permisos;
+        this.espera = espera;
+        this.objectMapper = objectMapper;
+        log.info("Guarda de concurrencia JDBC: {} requests simultáneos", permisos);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        int necesarios = RESUMEN.equals(request.getRequestURI())
+                ? Math.min(DashboardSummaryService.CONEXIONES, total) : 1;
+        boolean adquirido;
+        try {
+            adquirido = permisos.tryAcquire(necesarios, espera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Servidor ocupado, reintente en unos segundos"));
+            return;
+        }
+        Liberacion liberacion = new Liberacion(necesarios);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(liberacion);
+            } else {
+                liberacion.liberar();
+            }
+        }
+    }
+
+    /** Devuelve los permisos de un request una sola vez, termine como termine. */
+    private class Liberacion implements AsyncListener {
+
+        private final int cantidad;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        Liberacion(int cantidad) {
+            this.cantidad = cantidad;
+        }
+
+        void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release(cantidad);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo ciclo asincrónico descarta los listeners: hay que volver a registrarse
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
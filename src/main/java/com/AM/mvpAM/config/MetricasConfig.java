@@ -0,0 +1,64 @@
+package com.AM.mvpAM.config;
+
+import com.AM.mvpAM.service.ObraDetalleCache;
+import com.AM.mvpAM.service.ObraService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas propias que se leen de contadores que ya existen, sin tocar el
+ * camino de cada request: la cache del detalle de obras, los reintentos del
+ * cambio de estado y el ratio de aciertos de la cache de segundo nivel.
+ * Tiempos por endpoint, pool de Hikari y el resto de las estadísticas de
+ * Hibernate (consultas, cargas de entidades, fetch de colecciones, aciertos
+ * y fallos por región) los registra Spring Boot; los contadores de altas,
+ * transiciones y rechazos están en {@link com.AM.mvpAM.service.ObraMetricas}.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    MeterBinder obraDetalleCacheMetricas(ObraDetalleCache cache) {
+        return registry -> {
+            FunctionCounter.builder("obras.detalle.cache.aciertos", cache, ObraDetalleCache::getAciertos)
+                    .register(registry);
+            FunctionCounter.builder("obras.detalle.cache.fallos", cache, ObraDetalleCache::getFallos)
+                    .register(registry);
+            FunctionCounter.builder("obras.detalle.cache.desalojos", cache, ObraDetalleCache::getDesalojos)
+                    .register(registry);
+            Gauge.builder("obras.detalle.cache.ratio.aciertos", cache, ObraDetalleCache::getRatioAciertos)
+                    .register(registry);
+            Gauge.builder("obras.detalle.cache.bytes", cache, ObraDetalleCache::getBytesEnUso)
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder("obras.detalle.cache.entradas", cache, ObraDetalleCache::getEntradas)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder cambioEstadoMetricas(ObraService obraService) {
+        return registry -> FunctionCounter.builder("obras.estado.reintentos", obraService,
+                        ObraService::getReintentosCambioEstado)
+                .description("Transiciones de estado repetidas por conflicto de versión")
+                .register(registry);
+    }
+
+    @Bean
+    MeterBinder cacheSegundoNivelMetricas(EntityManagerFactory entityManagerFactory) {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> Gauge.builder("hibernate.cache.ratio.aciertos", estadisticas, s -> {
+                    long aciertos = s.getSecondLevelCacheHitCount();
+                    long total = aciertos + s.getSecondLevelCacheMissCount();
+                    return total == 0 ? 0 : (double) aciertos / total;
+                })
+                .description("Aciertos sobre lecturas de la cache de segundo nivel")
+                .register(registry);
+    }
+}
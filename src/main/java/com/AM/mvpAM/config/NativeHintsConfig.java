@@ -0,0 +1,57 @@
+package com.AM.mvpAM.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Hints de reflexión para la imagen nativa (./gradlew -Pnative nativeCompile).
+ * Spring AOT ya cubre los beans y las entidades que ve Hibernate; falta lo que
+ * sólo se usa por reflexión en tiempo de ejecución:
+ * <ul>
+ *   <li>entidades y DTOs que Jackson serializa y deserializa (getters/setters de
+ *       Lombok, constructores sin argumentos) y los constructores que invocan las
+ *       proyecciones JPQL {@code SELECT new com.AM.mvpAM.dto...};</li>
+ *   <li>el proveedor JCache, que Hibernate carga por nombre, y su configuración
+ *       (application.conf).</li>
+ * </ul>
+ * Las clases se buscan en build time (el registrar corre en el proceso AOT).
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static final String[] PAQUETES = {"com.AM.mvpAM.entities", "com.AM.mvpAM.dto", "com.AM.mvpAM.enums"};
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                    // También abstractas (Base): Jackson recorre la jerarquía
+                    return definition.getMetadata().isIndependent();
+                }
+            };
+            scanner.addIncludeFilter((reader, factory) -> true);
+            for (String paquete : PAQUETES) {
+                for (BeanDefinition candidata : scanner.findCandidateComponents(paquete)) {
+                    hints.reflection().registerType(ClassUtils.resolveClassName(candidata.getBeanClassName(), classLoader),
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS);
+                }
+            }
+            hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
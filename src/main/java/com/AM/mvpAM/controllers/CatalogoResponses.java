@@ -0,0 +1,24 @@
+package com.AM.mvpAM.controllers;
+
+import com.AM.mvpAM.dto.ApiResponse;
+import com.AM.mvpAM.service.CatalogoService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Respuestas de los GET del catálogo: ETag fuerte con la versión de la
+ * instantánea y no-cache para que el navegador revalide siempre. Si el
+ * If-None-Match coincide, Spring contesta 304 sin serializar el cuerpo.
+ */
+final class CatalogoResponses {
+
+    private CatalogoResponses() {
+    }
+
+    static <T> ResponseEntity<ApiResponse<T>> conEtag(CatalogoService.Catalogo catalogo, ApiResponse<T> body) {
+        return ResponseEntity.ok()
+                .eTag(catalogo.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+}
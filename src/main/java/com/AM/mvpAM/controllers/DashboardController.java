@@ -2,52 +2,46 @@ package com.AM.mvpAM.controllers;
 
 import com.AM.mvpAM.dto.ApiResponse;
 import com.AM.mvpAM.dto.DashboardStats;
+import com.AM.mvpAM.dto.DashboardSummaryDTO;
 import com.AM.mvpAM.dto.ObrasPorEstadoDTO;
 import com.AM.mvpAM.dto.InversionPorRubroDTO;
-import com.AM.mvpAM.repositories.ObraRepository;
-import com.AM.mvpAM.repositories.PlanProyectoRepository;
-import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
-import com.AM.mvpAM.repositories.ObraEstadoObraRepository;
+import com.AM.mvpAM.service.DashboardAggregates;
+import com.AM.mvpAM.service.DashboardSummaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.math.BigDecimal;
-
 @RestController
 @RequestMapping("/api/dashboard")
 @CrossOrigin(origins = "http://localhost:3000")
 public class DashboardController {
 
     @Autowired
-    private ObraRepository obraRepository;
-
-    @Autowired
-    private PlanProyectoRepository planProyectoRepository;
+    private DashboardAggregates dashboardAggregates;
 
     @Autowired
-    private RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private DashboardSummaryService dashboardSummaryService;
 
-    @Autowired
-    private ObraEstadoObraRepository obraEstadoObraRepository;
+    // Todo el dashboard en un solo request; las secciones se consultan en paralelo
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<DashboardSummaryDTO>> getSummary(
+            @RequestParam(defaultValue = "5") int recientes) {
+        DashboardSummaryDTO summary = dashboardSummaryService.resumen(recientes);
+        if (summary.isParcial()) {
+            return ResponseEntity.ok(ApiResponse.success(summary,
+                    "Resumen parcial: " + String.join("; ", summary.getErrores())));
+        }
+        return ResponseEntity.ok(ApiResponse.success(summary));
+    }
 
     @GetMapping("/stats")
     public ResponseEntity<ApiResponse<DashboardStats>> getDashboardStats() {
         try {
-            long totalObras = obraRepository.count();
-            long planesActivos = planProyectoRepository.countBySeEjecutaTrue();
-
-            // Calcular inversión total sumando todas las obras
-            BigDecimal inversionTotal = obraRepository.findAll().stream()
-                    .map(obra -> obra.getInversionFinal())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-            long riesgosPendientes = riesgoTecnicoRepository.count();
-
-            DashboardStats stats = new DashboardStats(totalObras, planesActivos, inversionTotal, riesgosPendientes);
+            DashboardStats stats = dashboardAggregates.getStats();
             return ResponseEntity.ok(ApiResponse.success(stats));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -58,7 +52,7 @@ public class DashboardController {
     @GetMapping("/obras-por-estado")
     public ResponseEntity<ApiResponse<java.util.List<ObrasPorEstadoDTO>>> getObrasPorEstado() {
         try {
-            var data = obraEstadoObraRepository.countObrasPorEstado();
+            var data = dashboardAggregates.getObrasPorEstado();
             return ResponseEntity.ok(ApiResponse.success(data));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -69,7 +63,7 @@ public class DashboardController {
     @GetMapping("/inversion-por-rubro")
     public ResponseEntity<ApiResponse<java.util.List<InversionPorRubroDTO>>> getInversionPorRubro() {
         try {
-            var data = obraRepository.sumInversionPorRubro();
+            var data = dashboardAggregates.getInversionPorRubro();
             return ResponseEntity.ok(ApiResponse.success(data));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -2,8 +2,9 @@ package com.AM.mvpAM.controllers;
 
 import com.AM.mvpAM.dto.ApiResponse;
 import com.AM.mvpAM.entities.Departamento;
-import com.AM.mvpAM.repositories.DepartamentoRepository;
-import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.service.CatalogoAbmService;
+import com.AM.mvpAM.service.CatalogoService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,69 +13,64 @@ import java.util.List;
 @RequestMapping("/api/departamentos")
 public class DepartamentoController {
 
-    private final DepartamentoRepository departamentoRepository;
-    private final LocalidadRepository localidadRepository;
+    private final CatalogoService catalogoService;
+    private final CatalogoAbmService catalogoAbmService;
 
-    public DepartamentoController(DepartamentoRepository departamentoRepository,
-                                 LocalidadRepository localidadRepository) {
-        this.departamentoRepository = departamentoRepository;
-        this.localidadRepository = localidadRepository;
+    public DepartamentoController(CatalogoService catalogoService, CatalogoAbmService catalogoAbmService) {
+        this.catalogoService = catalogoService;
+        this.catalogoAbmService = catalogoAbmService;
     }
 
     @GetMapping
-    public ApiResponse<List<Departamento>> getAll() {
-        return new ApiResponse<>(true, departamentoRepository.findByFechaBajaIsNull());
+    public ResponseEntity<ApiResponse<List<Departamento>>> getAll() {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.departamentos().activas()));
     }
 
     @GetMapping("/all")
-    public ApiResponse<List<Departamento>> getAllIncludingBajas() {
-        return new ApiResponse<>(true, departamentoRepository.findAll());
+    public ResponseEntity<ApiResponse<List<Departamento>>> getAllIncludingBajas() {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.departamentos().todas()));
     }
 
     @GetMapping("/{id}")
-    public ApiResponse<Departamento> getById(@PathVariable Long id) {
-        return departamentoRepository.findByIdAndFechaBajaIsNull(id)
+    public ResponseEntity<ApiResponse<Departamento>> getById(@PathVariable Long id) {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, catalogo.departamentos().activa(id)
                 .map(d -> new ApiResponse<>(true, d))
-                .orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+                .orElseGet(() -> new ApiResponse<>(false, null, "Not found")));
     }
 
     @PostMapping
     public ApiResponse<Departamento> create(@RequestBody Departamento departamento) {
-        if (departamento.getNombreDepartamento() == null || departamento.getNombreDepartamento().trim().isEmpty()) {
-            return ApiResponse.error("Nombre de departamento requerido");
+        try {
+            return new ApiResponse<>(true, catalogoAbmService.crearDepartamento(departamento));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
         }
-        boolean exists = departamentoRepository
-                .existsByNombreDepartamentoIgnoreCaseAndFechaBajaIsNull(departamento.getNombreDepartamento());
-        if (exists) {
-            return ApiResponse.error("Ya existe un departamento con ese nombre");
-        }
-        return new ApiResponse<>(true, departamentoRepository.save(departamento));
     }
 
     @PutMapping("/{id}")
     public ApiResponse<Departamento> update(@PathVariable Long id, @RequestBody Departamento departamento) {
-        if (departamento.getNombreDepartamento() == null || departamento.getNombreDepartamento().trim().isEmpty()) {
-            return ApiResponse.error("Nombre de departamento requerido");
+        try {
+            return catalogoAbmService.actualizarDepartamento(id, departamento)
+                    .map(actualizado -> new ApiResponse<>(true, actualizado))
+                    .orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
         }
-        return departamentoRepository.findByIdAndFechaBajaIsNull(id)
-                .map(d -> {
-                    d.setNombreDepartamento(departamento.getNombreDepartamento());
-                    return new ApiResponse<>(true, departamentoRepository.save(d));
-                }).orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
     }
 
     @DeleteMapping("/{id}")
     public ApiResponse<Void> delete(@PathVariable Long id) {
-        return departamentoRepository.findByIdAndFechaBajaIsNull(id).map(d -> {
-            boolean tieneLocalidades = localidadRepository
-                    .existsByDepartamentoIdAndFechaBajaIsNull(d.getId());
-            if (tieneLocalidades) {
-                return ApiResponse.<Void>error("No se puede dar de baja un departamento con localidades activas");
+        try {
+            if (catalogoAbmService.darDeBajaDepartamento(id)) {
+                return new ApiResponse<>(true, null);
             }
-            d.setFechaBaja(java.time.LocalDateTime.now());
-            departamentoRepository.save(d);
-            return new ApiResponse<Void>(true, null);
-        }).orElseGet(() -> ApiResponse.<Void>error("Not found"));
+            return ApiResponse.error("Not found");
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
     }
 }
 
@@ -2,8 +2,9 @@ package com.AM.mvpAM.controllers;
 
 import com.AM.mvpAM.dto.ApiResponse;
 import com.AM.mvpAM.entities.Localidad;
-import com.AM.mvpAM.repositories.DepartamentoRepository;
-import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.service.CatalogoAbmService;
+import com.AM.mvpAM.service.CatalogoService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,78 +13,70 @@ import java.util.List;
 @RequestMapping("/api/localidades")
 public class LocalidadController {
 
-    private final LocalidadRepository localidadRepository;
-    private final DepartamentoRepository departamentoRepository;
+    private final CatalogoService catalogoService;
+    private final CatalogoAbmService catalogoAbmService;
 
-    public LocalidadController(LocalidadRepository localidadRepository, DepartamentoRepository departamentoRepository) {
-        this.localidadRepository = localidadRepository;
-        this.departamentoRepository = departamentoRepository;
+    public LocalidadController(CatalogoService catalogoService, CatalogoAbmService catalogoAbmService) {
+        this.catalogoService = catalogoService;
+        this.catalogoAbmService = catalogoAbmService;
     }
 
     @GetMapping
-    public ApiResponse<List<Localidad>> getAll() {
-        return new ApiResponse<>(true, localidadRepository.findByFechaBajaIsNull());
+    public ResponseEntity<ApiResponse<List<Localidad>>> getAll() {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.localidades().activas()));
     }
 
     @GetMapping("/all")
-    public ApiResponse<List<Localidad>> getAllIncludingBajas() {
-        return new ApiResponse<>(true, localidadRepository.findAll());
+    public ResponseEntity<ApiResponse<List<Localidad>>> getAllIncludingBajas() {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.localidades().todas()));
     }
 
     @GetMapping("/departamento/{id}")
-    public ApiResponse<List<Localidad>> getByDepartamento(@PathVariable Long id) {
-        return new ApiResponse<>(true, localidadRepository.findByDepartamentoIdAndFechaBajaIsNull(id));
+    public ResponseEntity<ApiResponse<List<Localidad>>> getByDepartamento(@PathVariable Long id) {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.localidadesDe(id)));
     }
 
     @GetMapping("/{id}")
-    public ApiResponse<Localidad> getById(@PathVariable Long id) {
-        return localidadRepository.findByIdAndFechaBajaIsNull(id)
+    public ResponseEntity<ApiResponse<Localidad>> getById(@PathVariable Long id) {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, catalogo.localidades().activa(id)
                 .map(l -> new ApiResponse<>(true, l))
-                .orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+                .orElseGet(() -> new ApiResponse<>(false, null, "Not found")));
     }
 
     @PostMapping
     public ApiResponse<Localidad> create(@RequestBody Localidad localidad) {
-        if (localidad.getNombreLocalidad() == null || localidad.getNombreLocalidad().trim().isEmpty()) {
-            return ApiResponse.error("Nombre de localidad requerido");
+        try {
+            return new ApiResponse<>(true, catalogoAbmService.crearLocalidad(localidad));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
         }
-        if (localidad.getDepartamento() == null || localidad.getDepartamento().getId() == null) {
-            return ApiResponse.error("Departamento requerido");
-        }
-        return departamentoRepository.findByIdAndFechaBajaIsNull(localidad.getDepartamento().getId())
-                .map(dep -> {
-                    localidad.setDepartamento(dep);
-                    return new ApiResponse<>(true, localidadRepository.save(localidad));
-                })
-                .orElseGet(() -> ApiResponse.error("Departamento no encontrado"));
     }
 
     @PutMapping("/{id}")
     public ApiResponse<Localidad> update(@PathVariable Long id, @RequestBody Localidad localidad) {
-        if (localidad.getNombreLocalidad() == null || localidad.getNombreLocalidad().trim().isEmpty()) {
-            return ApiResponse.error("Nombre de localidad requerido");
+        try {
+            return catalogoAbmService.actualizarLocalidad(id, localidad)
+                    .map(actualizado -> new ApiResponse<>(true, actualizado))
+                    .orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
         }
-        return localidadRepository.findByIdAndFechaBajaIsNull(id).map(l -> {
-            l.setNombreLocalidad(localidad.getNombreLocalidad());
-            if (localidad.getDepartamento() != null && localidad.getDepartamento().getId() != null) {
-                return departamentoRepository.findByIdAndFechaBajaIsNull(localidad.getDepartamento().getId())
-                        .map(dep -> {
-                            l.setDepartamento(dep);
-                            return new ApiResponse<>(true, localidadRepository.save(l));
-                        })
-                        .orElseGet(() -> ApiResponse.error("Departamento inválido o dado de baja"));
-            }
-            return new ApiResponse<>(true, localidadRepository.save(l));
-        }).orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
     }
 
     @DeleteMapping("/{id}")
     public ApiResponse<Void> delete(@PathVariable Long id) {
-        return localidadRepository.findByIdAndFechaBajaIsNull(id).map(l -> {
-            l.setFechaBaja(java.time.LocalDateTime.now());
-            localidadRepository.save(l);
-            return new ApiResponse<Void>(true, null);
-        }).orElseGet(() -> ApiResponse.<Void>error("Not found"));
+        try {
+            if (catalogoAbmService.darDeBajaLocalidad(id)) {
+                return new ApiResponse<>(true, null);
+            }
+            return ApiResponse.error("Not found");
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
     }
 }
 
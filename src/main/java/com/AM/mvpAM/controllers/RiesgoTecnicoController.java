@@ -1,31 +1,31 @@
 package com.AM.mvpAM.controllers;
 
 import com.AM.mvpAM.dto.ApiResponse;
+import com.AM.mvpAM.dto.CursorResponse;
 import com.AM.mvpAM.dto.PaginatedResponse;
 import com.AM.mvpAM.entities.RiesgoTecnico;
-import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
-import com.AM.mvpAM.repositories.ObraRiesgoRepository;
+import com.AM.mvpAM.service.RiesgoTecnicoService;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.time.LocalDateTime;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/riesgos")
 public class RiesgoTecnicoController {
 
-    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
-    private final ObraRiesgoRepository obraRiesgoRepository;
+    private final RiesgoTecnicoService riesgoTecnicoService;
 
-    public RiesgoTecnicoController(RiesgoTecnicoRepository riesgoTecnicoRepository,
-                                   ObraRiesgoRepository obraRiesgoRepository) {
-        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
-        this.obraRiesgoRepository = obraRiesgoRepository;
+    public RiesgoTecnicoController(RiesgoTecnicoService riesgoTecnicoService) {
+        this.riesgoTecnicoService = riesgoTecnicoService;
     }
 
     @GetMapping
     public PaginatedResponse<RiesgoTecnico> getAll(Pageable pageable) {
-        Page<RiesgoTecnico> page = riesgoTecnicoRepository.findAll(pageable);
+        Page<RiesgoTecnico> page = riesgoTecnicoService.listar(pageable);
         return new PaginatedResponse<>(
                 page.getContent(),
                 page.getNumber(),
@@ -35,66 +35,67 @@ public class RiesgoTecnicoController {
         );
     }
 
+    // Modo cursor (opt-in con ?limit=): keyset sobre id, sin count
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorResponse<RiesgoTecnico>> getAllByCursor(
+            @RequestParam(required = false) String after, @RequestParam int limit) {
+        Optional<Long> afterId = CursorResponse.decode(after);
+        if (afterId.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Slice<RiesgoTecnico> slice = riesgoTecnicoService.listarAfter(afterId.get(), CursorResponse.limit(limit));
+        return ResponseEntity.ok(CursorResponse.of(slice, RiesgoTecnico::getId));
+    }
+
     @GetMapping("/{id}")
     public ApiResponse<RiesgoTecnico> getById(@PathVariable Long id) {
-        return riesgoTecnicoRepository.findByIdAndFechaBajaIsNull(id)
+        return riesgoTecnicoService.buscar(id)
                 .map(r -> new ApiResponse<RiesgoTecnico>(true, r))
                 .orElseGet(() -> new ApiResponse<RiesgoTecnico>(false, null, "Not found"));
     }
 
     @GetMapping("/exists/{nro}")
     public ApiResponse<Boolean> existsByNro(@PathVariable("nro") Long nro) {
-        boolean exists = riesgoTecnicoRepository.existsByNroRiesgo(nro);
+        boolean exists = riesgoTecnicoService.existeNumero(nro);
         return new ApiResponse<>(true, exists);
     }
 
     @PostMapping
     public ApiResponse<RiesgoTecnico> create(@RequestBody RiesgoTecnico riesgo) {
-        if (riesgo.getNroRiesgo() == null) {
-            return ApiResponse.<RiesgoTecnico>error("Número de riesgo requerido");
-        }
-        if (riesgoTecnicoRepository.existsByNroRiesgo(riesgo.getNroRiesgo())) {
+        try {
+            return new ApiResponse<>(true, riesgoTecnicoService.crear(riesgo));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.<RiesgoTecnico>error(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            // Alta concurrente con el mismo número: la rechaza uk_riesgo_tecnico_nro
             return ApiResponse.<RiesgoTecnico>error("Ya existe un riesgo con ese número");
         }
-        if (riesgo.getNaturalezaRiesgo() == null || riesgo.getNaturalezaRiesgo().trim().isEmpty()) {
-            return ApiResponse.<RiesgoTecnico>error("La naturaleza del riesgo es requerida");
-        }
-        return new ApiResponse<>(true, riesgoTecnicoRepository.save(riesgo));
     }
 
     @PutMapping("/{id}")
     public ApiResponse<RiesgoTecnico> update(@PathVariable Long id, @RequestBody RiesgoTecnico riesgo) {
-        return riesgoTecnicoRepository.findByIdAndFechaBajaIsNull(id).map(r -> {
-            if (riesgo.getNroRiesgo() == null) {
-                return ApiResponse.<RiesgoTecnico>error("Número de riesgo requerido");
-            }
-            if (riesgoTecnicoRepository.existsByNroRiesgoAndIdNot(riesgo.getNroRiesgo(), id)) {
-                return ApiResponse.<RiesgoTecnico>error("Ya existe un riesgo con ese número");
-            }
-            if (riesgo.getNaturalezaRiesgo() == null || riesgo.getNaturalezaRiesgo().trim().isEmpty()) {
-                return ApiResponse.<RiesgoTecnico>error("La naturaleza del riesgo es requerida");
-            }
-
-            r.setNroRiesgo(riesgo.getNroRiesgo());
-            r.setNaturalezaRiesgo(riesgo.getNaturalezaRiesgo());
-            r.setPropuestaSolucion(riesgo.getPropuestaSolucion());
-            r.setMedidasMitigacion(riesgo.getMedidasMitigacion());
-            r.setAccionesEjecutadas(riesgo.getAccionesEjecutadas());
-            return new ApiResponse<>(true, riesgoTecnicoRepository.save(r));
-        }).orElseGet(() -> new ApiResponse<RiesgoTecnico>(false, null, "Not found"));
+        try {
+            return riesgoTecnicoService.actualizar(id, riesgo)
+                    .map(r -> new ApiResponse<>(true, r))
+                    .orElseGet(() -> new ApiResponse<RiesgoTecnico>(false, null, "Not found"));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.<RiesgoTecnico>error(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            // Alta concurrente con el mismo número: la rechaza uk_riesgo_tecnico_nro
+            return ApiResponse.<RiesgoTecnico>error("Ya existe un riesgo con ese número");
+        }
     }
 
     @DeleteMapping("/{id}")
     public ApiResponse<Void> delete(@PathVariable Long id) {
-        return riesgoTecnicoRepository.findByIdAndFechaBajaIsNull(id).map(r -> {
-            long usos = obraRiesgoRepository.countByRiesgoTecnicoIdAndObraFechaBajaIsNull(id);
-            if (usos > 0) {
-                return new ApiResponse<Void>(false, null, "El riesgo está asociado a una obra activa");
+        try {
+            if (riesgoTecnicoService.darDeBaja(id)) {
+                return new ApiResponse<Void>(true, null);
             }
-            r.setFechaBaja(LocalDateTime.now());
-            riesgoTecnicoRepository.save(r);
-            return new ApiResponse<Void>(true, null);
-        }).orElseGet(() -> new ApiResponse<Void>(false, null, "Not found"));
+            return new ApiResponse<Void>(false, null, "Not found");
+        } catch (IllegalArgumentException e) {
+            return new ApiResponse<Void>(false, null, e.getMessage());
+        }
     }
 }
 
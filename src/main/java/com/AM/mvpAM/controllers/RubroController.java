@@ -2,79 +2,75 @@ package com.AM.mvpAM.controllers;
 
 import com.AM.mvpAM.dto.ApiResponse;
 import com.AM.mvpAM.entities.Rubro;
-import com.AM.mvpAM.repositories.RubroRepository;
-import com.AM.mvpAM.repositories.PlanProyectoRepository;
+import com.AM.mvpAM.service.CatalogoAbmService;
+import com.AM.mvpAM.service.CatalogoService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/rubros")
 public class RubroController {
 
-    private final RubroRepository rubroRepository;
-    private final PlanProyectoRepository planProyectoRepository;
+    private final CatalogoService catalogoService;
+    private final CatalogoAbmService catalogoAbmService;
 
-    public RubroController(RubroRepository rubroRepository,
-                           PlanProyectoRepository planProyectoRepository) {
-        this.rubroRepository = rubroRepository;
-        this.planProyectoRepository = planProyectoRepository;
+    public RubroController(CatalogoService catalogoService, CatalogoAbmService catalogoAbmService) {
+        this.catalogoService = catalogoService;
+        this.catalogoAbmService = catalogoAbmService;
     }
 
     @GetMapping
-    public ApiResponse<List<Rubro>> getAll() {
-        return new ApiResponse<>(true, rubroRepository.findByFechaBajaIsNull());
+    public ResponseEntity<ApiResponse<List<Rubro>>> getAll() {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.rubros().activas()));
     }
 
     @GetMapping("/all")
-    public ApiResponse<List<Rubro>> getAllIncludingBajas() {
-        return new ApiResponse<>(true, rubroRepository.findAll());
+    public ResponseEntity<ApiResponse<List<Rubro>>> getAllIncludingBajas() {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, new ApiResponse<>(true, catalogo.rubros().todas()));
     }
 
     @GetMapping("/{id}")
-    public ApiResponse<Rubro> getById(@PathVariable Long id) {
-        return rubroRepository.findByIdAndFechaBajaIsNull(id)
+    public ResponseEntity<ApiResponse<Rubro>> getById(@PathVariable Long id) {
+        CatalogoService.Catalogo catalogo = catalogoService.actual();
+        return CatalogoResponses.conEtag(catalogo, catalogo.rubros().activa(id)
                 .map(r -> new ApiResponse<>(true, r))
-                .orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+                .orElseGet(() -> new ApiResponse<>(false, null, "Not found")));
     }
 
     @PostMapping
     public ApiResponse<Rubro> create(@RequestBody Rubro rubro) {
-        if (rubro.getNombreRubro() == null || rubro.getNombreRubro().trim().isEmpty()) {
-            return ApiResponse.error("Nombre de rubro requerido");
+        try {
+            return new ApiResponse<>(true, catalogoAbmService.crearRubro(rubro));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
         }
-        if (rubroRepository.existsByNombreRubroIgnoreCaseAndFechaBajaIsNull(rubro.getNombreRubro())) {
-            return ApiResponse.error("Ya existe un rubro con ese nombre");
-        }
-        return new ApiResponse<>(true, rubroRepository.save(rubro));
     }
 
     @PutMapping("/{id}")
     public ApiResponse<Rubro> update(@PathVariable Long id, @RequestBody Rubro rubro) {
-        return rubroRepository.findByIdAndFechaBajaIsNull(id).map(r -> {
-            if (rubro.getNombreRubro() == null || rubro.getNombreRubro().trim().isEmpty()) {
-                return ApiResponse.<Rubro>error("Nombre de rubro requerido");
-            }
-            if (rubroRepository.existsByNombreRubroIgnoreCaseAndFechaBajaIsNullAndIdNot(rubro.getNombreRubro(), id)) {
-                return ApiResponse.<Rubro>error("Ya existe un rubro con ese nombre");
-            }
-            r.setNombreRubro(rubro.getNombreRubro());
-            return new ApiResponse<>(true, rubroRepository.save(r));
-        }).orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+        try {
+            return catalogoAbmService.actualizarRubro(id, rubro)
+                    .map(actualizado -> new ApiResponse<>(true, actualizado))
+                    .orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
     public ApiResponse<Void> delete(@PathVariable Long id) {
-        return rubroRepository.findByIdAndFechaBajaIsNull(id).map(r -> {
-            long usos = planProyectoRepository.countByRubroIdAndFechaBajaIsNull(id);
-            if (usos > 0) {
-                return new ApiResponse<Void>(false, null, "El rubro está asociado a un plan activo");
+        try {
+            if (catalogoAbmService.darDeBajaRubro(id)) {
+                return new ApiResponse<>(true, null);
             }
-            r.setFechaBaja(LocalDateTime.now());
-            rubroRepository.save(r);
-            return new ApiResponse<Void>(true, null);
-        }).orElseGet(() -> new ApiResponse<>(false, null, "Not found"));
+            return ApiResponse.error("Not found");
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error(e.getMessage());
+        }
     }
 }
 
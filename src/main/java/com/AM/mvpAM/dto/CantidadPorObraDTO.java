@@ -0,0 +1,13 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CantidadPorObraDTO {
+    private Long obraId;
+    private Long cantidad;
+}
@@ -0,0 +1,68 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Página por cursor (keyset). A diferencia de {@link PaginatedResponse} no
+ * informa totales: nextCursor es opaco para el cliente y se reenvía como
+ * ?after= para pedir la página siguiente.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorResponse<T> {
+    public static final int MAX_LIMIT = 200;
+
+    private static final String PREFIJO = "id:";
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <T> CursorResponse<T> of(Slice<T> slice, Function<T, Long> clave) {
+        List<T> content = slice.getContent();
+        String next = null;
+        if (slice.hasNext() && !content.isEmpty()) {
+            next = encode(clave.apply(content.get(content.size() - 1)));
+        }
+        return new CursorResponse<>(content, content.size(), slice.hasNext(), next);
+    }
+
+    public static int limit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIJO + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve el id codificado en el cursor; sin cursor se empieza desde el
+     * principio y un cursor mal formado devuelve vacío.
+     */
+    public static Optional<Long> decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Optional.of(0L);
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                return Optional.empty();
+            }
+            return Optional.of(Long.parseLong(valor.substring(PREFIJO.length())));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Respuesta de /api/dashboard/summary. Si alguna sección falla o se pasa del
+ * tiempo queda en null, parcial pasa a true y errores indica cuál fue.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSummaryDTO {
+    private DashboardStats stats;
+    private List<ObrasPorEstadoDTO> obrasPorEstado;
+    private List<InversionPorRubroDTO> inversionPorRubro;
+    private List<ObraListDTO> obrasRecientes;
+    private List<RiesgoResumenDTO> riesgosPendientes;
+    private boolean parcial;
+    private List<String> errores;
+}
@@ -0,0 +1,17 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadoActualDTO {
+    private Long obraId;
+    private Long estadoObraId;
+    private String nombreEstadoObra;
+    private LocalDateTime fechaHoraInicio;
+}
@@ -0,0 +1,15 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    // Número de línea del archivo (el encabezado es la línea 1)
+    private int fila;
+    private Long nroObra;
+    private String mensaje;
+}
@@ -0,0 +1,19 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private int totalFilas;
+    private int importadas;
+    private int rechazadas;
+    private long duracionMs;
+    private List<ImportErrorDTO> errores = new ArrayList<>();
+}
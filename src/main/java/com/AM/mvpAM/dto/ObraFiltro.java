@@ -0,0 +1,28 @@
+package com.AM.mvpAM.dto;
+
+import com.AM.mvpAM.enums.Prioridad;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros de GET /api/obras/search, tomados de los parámetros de la query.
+ * Los que llegan en null no restringen; los rangos son inclusivos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObraFiltro {
+    private Long departamentoId;
+    private Long localidadId;
+    private Integer anioDesde;
+    private Integer anioHasta;
+    private BigDecimal inversionDesde;
+    private BigDecimal inversionHasta;
+    private Long estadoId;
+    private Long rubroId;
+    private Prioridad prioridad;
+    private Long riesgoId;
+}
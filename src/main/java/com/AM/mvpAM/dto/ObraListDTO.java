@@ -0,0 +1,101 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Modelo de lectura para el listado de obras. Se arma con una proyección JPQL
+ * (sin cargar entidades) y conserva la forma JSON que consume el frontend
+ * (localidad.departamento, planProyecto), sumando el estado actual (columna
+ * desnormalizada de Obra) y la cantidad de riesgos en lugar de las colecciones
+ * completas.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ObraListDTO {
+    private Long id;
+    private Long nroObra;
+    private String nombreObra;
+    private Integer tiempoEjecucion;
+    private Integer anioEjecucion;
+    private LocalDate fechaInicioObra;
+    private LocalDate fechaFinObra;
+    private BigDecimal inversionFinal;
+    private LocalDateTime fechaAlta;
+    private LocalDateTime fechaBaja;
+    private LocalidadResumen localidad;
+    private PlanResumen planProyecto;
+    private EstadoResumen estadoActual;
+    private long cantidadRiesgos;
+
+    // Constructor usado por las consultas "SELECT new" de ObraRepository
+    public ObraListDTO(Long id, Long nroObra, String nombreObra, Integer tiempoEjecucion,
+                       Integer anioEjecucion, LocalDate fechaInicioObra, LocalDate fechaFinObra,
+                       BigDecimal inversionFinal, LocalDateTime fechaAlta, LocalDateTime fechaBaja,
+                       Long localidadId, String nombreLocalidad,
+                       Long departamentoId, String nombreDepartamento,
+                       Long planProyectoId, String nombrePlanProyecto,
+                       Long estadoActualId, String nombreEstadoActual, LocalDateTime fechaEstadoActual) {
+        this.id = id;
+        this.nroObra = nroObra;
+        this.nombreObra = nombreObra;
+        this.tiempoEjecucion = tiempoEjecucion;
+        this.anioEjecucion = anioEjecucion;
+        this.fechaInicioObra = fechaInicioObra;
+        this.fechaFinObra = fechaFinObra;
+        this.inversionFinal = inversionFinal;
+        this.fechaAlta = fechaAlta;
+        this.fechaBaja = fechaBaja;
+        if (localidadId != null) {
+            DepartamentoResumen departamento = departamentoId != null
+                    ? new DepartamentoResumen(departamentoId, nombreDepartamento) : null;
+            this.localidad = new LocalidadResumen(localidadId, nombreLocalidad, departamento);
+        }
+        if (planProyectoId != null) {
+            this.planProyecto = new PlanResumen(planProyectoId, nombrePlanProyecto);
+        }
+        if (estadoActualId != null) {
+            this.estadoActual = new EstadoResumen(estadoActualId, nombreEstadoActual, fechaEstadoActual);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LocalidadResumen {
+        private Long id;
+        private String nombreLocalidad;
+        private DepartamentoResumen departamento;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DepartamentoResumen {
+        private Long id;
+        private String nombreDepartamento;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlanResumen {
+        private Long id;
+        private String nombrePlanProyecto;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EstadoResumen {
+        private Long id;
+        private String nombreEstadoObra;
+        private LocalDateTime fechaHoraInicio;
+    }
+}
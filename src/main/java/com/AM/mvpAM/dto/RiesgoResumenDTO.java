@@ -0,0 +1,15 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RiesgoResumenDTO {
+    private Long id;
+    private Long nroRiesgo;
+    private String naturalezaRiesgo;
+    private String nombreObra;
+}
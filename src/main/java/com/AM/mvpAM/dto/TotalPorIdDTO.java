@@ -0,0 +1,16 @@
+package com.AM.mvpAM.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotalPorIdDTO {
+    private Long id;
+    private Long cantidad;
+    private BigDecimal suma;
+}
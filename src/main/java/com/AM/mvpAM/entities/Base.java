@@ -20,8 +20,10 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 public abstract class Base implements Serializable {
+    // Secuencia por entidad (<Entidad>_SEQ, incremento 50) con optimizador pooled-lo:
+    // los ids se asignan en memoria y los INSERT pueden agruparse en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     private LocalDateTime fechaAlta;
@@ -7,15 +7,18 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// Índices y restricción de número activo en db/migration/V2__indices.sql
 @Table(name = "obra")
 @Getter
 @Setter
@@ -30,6 +33,11 @@ public class Obra extends Base {
     private LocalDate fechaFinObra;
     private BigDecimal inversionFinal;
 
+    // Control optimista de concurrencia: cada escritura sobre la obra la incrementa
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "plan_proyecto_id")
     private PlanProyecto planProyecto;
@@ -38,6 +46,15 @@ public class Obra extends Base {
     @JsonManagedReference
     private List<ObraEstadoObra> obraEstadoObras = new ArrayList<>();
 
+    // Copia del estado abierto en obraEstadoObras, mantenida por ObraService.registrarEstado
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "estado_actual_id")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private EstadoObra estadoActual;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime fechaEstadoActual;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties("localidades")
     private Localidad localidad;
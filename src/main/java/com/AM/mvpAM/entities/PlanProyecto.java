@@ -2,6 +2,10 @@ package com.AM.mvpAM.entities;
 
 import com.AM.mvpAM.enums.Prioridad;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,6 +15,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "plan_proyecto")
 @Getter
@@ -25,7 +31,9 @@ public class PlanProyecto extends Base {
     private Integer tiempoEstimado;
     private Boolean seEjecuta;
 
+    // VARCHAR con CHECK, como en V1__esquema_inicial.sql (no el tipo ENUM nativo de H2)
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     private Prioridad prioridad;
 
     @ManyToOne(fetch = FetchType.LAZY)
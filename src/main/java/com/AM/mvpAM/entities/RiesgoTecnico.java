@@ -15,6 +15,7 @@ import com.AM.mvpAM.entities.ObraRiesgo;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+// El número de riesgo no se reutiliza, ni siquiera después de una baja (uk_riesgo_tecnico_nro)
 @Table(name = "riesgo_tecnico")
 @Getter
 @Setter
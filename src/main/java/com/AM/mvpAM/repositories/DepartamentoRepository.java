@@ -11,5 +11,10 @@ public interface DepartamentoRepository extends JpaRepository<Departamento, Long
 
     Optional<Departamento> findByIdAndFechaBajaIsNull(Long id);
 
+    // findById pasa por la caché de segundo nivel; la query derivada no
+    default Optional<Departamento> findActivoById(Long id) {
+        return findById(id).filter(x -> x.getFechaBaja() == null);
+    }
+
     boolean existsByNombreDepartamentoIgnoreCaseAndFechaBajaIsNull(String nombreDepartamento);
 }
@@ -1,7 +1,10 @@
 package com.AM.mvpAM.repositories;
 
 import com.AM.mvpAM.entities.EstadoObra;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +14,14 @@ public interface EstadoObraRepository extends JpaRepository<EstadoObra, Long> {
 
     Optional<EstadoObra> findByIdAndFechaBajaIsNull(Long id);
 
+    // Búsqueda por id servida desde la caché L2 (em.find)
+    default Optional<EstadoObra> findActivoById(Long id) {
+        return findById(id).filter(x -> x.getFechaBaja() == null);
+    }
+
+    // Se usa en cada alta de obra ("Planificacion"): resultado en la caché de consultas,
+    // invalidada por Hibernate ante cualquier escritura sobre estado_obra
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<EstadoObra> findFirstByNombreEstadoObraIgnoreCaseAndFechaBajaIsNull(String nombreEstadoObra);
 
     boolean existsByNombreEstadoObraIgnoreCaseAndFechaBajaIsNull(String nombreEstadoObra);
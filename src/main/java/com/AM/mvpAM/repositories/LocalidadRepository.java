@@ -2,6 +2,7 @@ package com.AM.mvpAM.repositories;
 
 import com.AM.mvpAM.entities.Localidad;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,6 +12,14 @@ public interface LocalidadRepository extends JpaRepository<Localidad, Long> {
 
     Optional<Localidad> findByIdAndFechaBajaIsNull(Long id);
 
+    // Por em.find: resuelve desde la caché de segundo nivel sin ir a la base
+    default Optional<Localidad> findActivoById(Long id) {
+        return findById(id).filter(x -> x.getFechaBaja() == null);
+    }
+
+    @Query("SELECT l.id FROM Localidad l WHERE l.fechaBaja IS NULL")
+    List<Long> findIdsActivos();
+
     List<Localidad> findByDepartamentoIdAndFechaBajaIsNull(Long departamentoId);
 
     boolean existsByDepartamentoIdAndFechaBajaIsNull(Long departamentoId);
@@ -0,0 +1,16 @@
+package com.AM.mvpAM.repositories;
+
+import com.AM.mvpAM.entities.Obra;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Fragmento de {@link ObraRepository} para la búsqueda con filtros: devuelve
+ * sólo la página de ids (más el total), que luego se completa con la
+ * proyección del listado.
+ */
+public interface ObraBusquedaRepository {
+
+    Page<Long> buscarIds(Specification<Obra> spec, Pageable pageable);
+}
@@ -0,0 +1,77 @@
+package com.AM.mvpAM.repositories;
+
+import com.AM.mvpAM.entities.Obra;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+class ObraBusquedaRepositoryImpl implements ObraBusquedaRepository {
+
+    // Sólo columnas de obra: ordenar por una referencia obligaría al join
+    private static final Set<String> ORDENABLES = Set.of(
+            "id", "nroObra", "nombreObra", "anioEjecucion", "inversionFinal",
+            "fechaInicioObra", "fechaAlta", "fechaEstadoActual");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Ids de la página con el orden pedido, desempatando por id para que el
+     * paginado sea estable. El count se omite cuando la página ya lo define
+     * (primera página incompleta). IllegalArgumentException si se pide
+     * ordenar por una propiedad no admitida.
+     */
+    @Override
+    public Page<Long> buscarIds(Specification<Obra> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Obra> root = query.from(Obra.class);
+        query.select(root.get("id"))
+                .where(spec.toPredicate(root, query, cb))
+                .orderBy(orden(root, cb, pageable.getSort()));
+
+        TypedQuery<Long> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typed.getResultList(), pageable, () -> contar(spec));
+    }
+
+    private long contar(Specification<Obra> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Obra> root = query.from(Obra.class);
+        query.select(cb.count(root)).where(spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Order> orden(Root<Obra> root, CriteriaBuilder cb, Sort sort) {
+        List<Order> orden = new ArrayList<>();
+        boolean conId = false;
+        for (Sort.Order o : sort) {
+            if (!ORDENABLES.contains(o.getProperty())) {
+                throw new IllegalArgumentException("No se puede ordenar por " + o.getProperty());
+            }
+            orden.add(o.isAscending() ? cb.asc(root.get(o.getProperty())) : cb.desc(root.get(o.getProperty())));
+            conId |= o.getProperty().equals("id");
+        }
+        if (!conId) {
+            orden.add(cb.asc(root.get("id")));
+        }
+        return orden;
+    }
+}
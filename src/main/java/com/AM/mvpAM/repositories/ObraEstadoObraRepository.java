@@ -6,13 +6,23 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface ObraEstadoObraRepository extends JpaRepository<ObraEstadoObra, Long> {
     long countByEstadoObraIdAndObraFechaBajaIsNull(Long estadoObraId);
 
+    // Cierra el estado abierto sin cargar el historial de la obra
+    @org.springframework.data.jpa.repository.Modifying
     @org.springframework.data.jpa.repository.Query(
-        "SELECT new com.AM.mvpAM.dto.ObrasPorEstadoDTO(e.nombreEstadoObra, COUNT(oe)) " +
+        "UPDATE ObraEstadoObra oe SET oe.fechaHoraFin = :fin " +
+        "WHERE oe.obra.id = :obraId AND oe.fechaHoraFin IS NULL"
+    )
+    int cerrarEstadosAbiertos(@org.springframework.data.repository.query.Param("obraId") Long obraId,
+                              @org.springframework.data.repository.query.Param("fin") java.time.LocalDateTime fin);
+
+    // Estados abiertos de un lote de obras, ordenados para quedarse con el más reciente
+    @org.springframework.data.jpa.repository.Query(
+        "SELECT new com.AM.mvpAM.dto.EstadoActualDTO(oe.obra.id, e.id, e.nombreEstadoObra, oe.fechaHoraInicio) " +
         "FROM ObraEstadoObra oe " +
         "JOIN oe.estadoObra e " +
-        "JOIN oe.obra o " +
-        "WHERE oe.fechaHoraFin IS NULL AND o.fechaBaja IS NULL " +
-        "GROUP BY e.nombreEstadoObra"
+        "WHERE oe.obra.id IN :obraIds AND oe.fechaHoraFin IS NULL " +
+        "ORDER BY oe.fechaHoraInicio, oe.id"
     )
-    java.util.List<com.AM.mvpAM.dto.ObrasPorEstadoDTO> countObrasPorEstado();
+    java.util.List<com.AM.mvpAM.dto.EstadoActualDTO> findEstadosAbiertosByObraIds(
+            @org.springframework.data.repository.query.Param("obraIds") java.util.Collection<Long> obraIds);
 }
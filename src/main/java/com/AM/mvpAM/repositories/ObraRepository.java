@@ -1,27 +1,123 @@
 package com.AM.mvpAM.repositories;
 
+import com.AM.mvpAM.dto.ObraListDTO;
 import com.AM.mvpAM.entities.Obra;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface ObraRepository extends JpaRepository<Obra, Long> {
+public interface ObraRepository extends JpaRepository<Obra, Long>, ObraBusquedaRepository {
     @Query("SELECT COALESCE(SUM(o.inversionFinal),0) FROM Obra o WHERE o.fechaBaja IS NULL")
     java.math.BigDecimal sumInversion();
 
     Page<Obra> findByFechaBajaIsNull(Pageable pageable);
 
+    // Listado proyectado: una sola consulta por página (más el count), sin cargar entidades
+    String LISTADO_SELECT =
+        "SELECT new com.AM.mvpAM.dto.ObraListDTO(o.id, o.nroObra, o.nombreObra, o.tiempoEjecucion, " +
+        "o.anioEjecucion, o.fechaInicioObra, o.fechaFinObra, o.inversionFinal, o.fechaAlta, o.fechaBaja, " +
+        "l.id, l.nombreLocalidad, d.id, d.nombreDepartamento, p.id, p.nombrePlanProyecto, " +
+        "ea.id, ea.nombreEstadoObra, o.fechaEstadoActual) " +
+        "FROM Obra o " +
+        "LEFT JOIN o.localidad l " +
+        "LEFT JOIN l.departamento d " +
+        "LEFT JOIN o.planProyecto p " +
+        "LEFT JOIN o.estadoActual ea ";
+
+    @Query(
+        value = LISTADO_SELECT + "WHERE o.fechaBaja IS NULL",
+        countQuery = "SELECT COUNT(o) FROM Obra o WHERE o.fechaBaja IS NULL"
+    )
+    Page<ObraListDTO> findListadoActivas(Pageable pageable);
+
+    @Query(
+        value = LISTADO_SELECT,
+        countQuery = "SELECT COUNT(o) FROM Obra o"
+    )
+    Page<ObraListDTO> findListadoTodas(Pageable pageable);
+
+    // Paginación por cursor (keyset sobre id): sin count y con costo constante en páginas profundas
+    @Query(LISTADO_SELECT + "WHERE o.fechaBaja IS NULL AND o.id > :afterId ORDER BY o.id")
+    Slice<ObraListDTO> findListadoActivasAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Segunda etapa de la búsqueda con filtros: la proyección de los ids de la página
+    @Query(LISTADO_SELECT + "WHERE o.id IN :ids")
+    java.util.List<ObraListDTO> findListadoByIdIn(@Param("ids") java.util.Collection<Long> ids);
+
+    // Exportación: se recorre con un cursor JDBC en lugar de materializar la lista
+    @Query(LISTADO_SELECT + "WHERE o.fechaBaja IS NULL ORDER BY o.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<ObraListDTO> streamListadoActivas();
+
     Optional<Obra> findByIdAndFechaBajaIsNull(Long id);
 
+    // Plan de carga del detalle: las referencias en una consulta y cada colección
+    // (son bags, no se pueden traer juntas) con su propio fetch join
+    @EntityGraph(attributePaths = {"localidad", "localidad.departamento", "planProyecto", "planProyecto.rubro", "estadoActual"})
+    Optional<Obra> findConReferenciasByIdAndFechaBajaIsNull(Long id);
+
+    @Query("SELECT o FROM Obra o LEFT JOIN FETCH o.obraEstadoObras e LEFT JOIN FETCH e.estadoObra WHERE o.id = :id")
+    Optional<Obra> findConHistorialById(@Param("id") Long id);
+
+    @Query("SELECT o FROM Obra o LEFT JOIN FETCH o.obraRiesgos r LEFT JOIN FETCH r.riesgoTecnico WHERE o.id = :id")
+    Optional<Obra> findConRiesgosById(@Param("id") Long id);
+
+    @Query("SELECT o FROM Obra o LEFT JOIN FETCH o.obraRubros r LEFT JOIN FETCH r.rubro WHERE o.id = :id")
+    Optional<Obra> findConRubrosById(@Param("id") Long id);
+
     // Métodos para validar número de obra único
     boolean existsByNroObraAndFechaBajaIsNull(Long nroObra);
 
     boolean existsByNroObraAndFechaBajaIsNullAndIdNot(Long nroObra, Long id);
 
+    // Incluye las bajas (lo usa el generador para saber si ya corrió)
+    long countByNroObraBetween(Long desde, Long hasta);
+
+    @Query("SELECT o.nroObra FROM Obra o WHERE o.fechaBaja IS NULL AND o.nroObra IS NOT NULL")
+    java.util.List<Long> findNroObraActivos();
+
     long countByPlanProyectoIdAndFechaBajaIsNull(Long planProyectoId);
 
+    @Query("SELECT o.id FROM Obra o WHERE o.estadoActual IS NULL")
+    java.util.List<Long> findIdsSinEstadoActual();
+
+    @Query(
+        "SELECT new com.AM.mvpAM.dto.ObrasPorEstadoDTO(e.nombreEstadoObra, COUNT(o)) " +
+        "FROM Obra o " +
+        "JOIN o.estadoActual e " +
+        "WHERE o.fechaBaja IS NULL " +
+        "GROUP BY e.nombreEstadoObra"
+    )
+    java.util.List<com.AM.mvpAM.dto.ObrasPorEstadoDTO> countObrasPorEstado();
+
+    long countByFechaBajaIsNull();
+
+    // Totales por estado actual y por plan para reconstruir los agregados del dashboard
+    @Query(
+        "SELECT new com.AM.mvpAM.dto.TotalPorIdDTO(o.estadoActual.id, COUNT(o), COALESCE(SUM(o.inversionFinal),0)) " +
+        "FROM Obra o " +
+        "WHERE o.fechaBaja IS NULL AND o.estadoActual IS NOT NULL " +
+        "GROUP BY o.estadoActual.id"
+    )
+    java.util.List<com.AM.mvpAM.dto.TotalPorIdDTO> totalesPorEstadoActual();
+
+    @Query(
+        "SELECT new com.AM.mvpAM.dto.TotalPorIdDTO(o.planProyecto.id, COUNT(o), COALESCE(SUM(o.inversionFinal),0)) " +
+        "FROM Obra o " +
+        "WHERE o.fechaBaja IS NULL AND o.planProyecto IS NOT NULL " +
+        "GROUP BY o.planProyecto.id"
+    )
+    java.util.List<com.AM.mvpAM.dto.TotalPorIdDTO> totalesPorPlan();
+
     @Query(
         "SELECT new com.AM.mvpAM.dto.InversionPorRubroDTO(r.nombreRubro, COALESCE(SUM(o.inversionFinal),0)) " +
         "FROM Obra o " +
@@ -1,8 +1,22 @@
 package com.AM.mvpAM.repositories;
 
 import com.AM.mvpAM.entities.ObraRiesgo;
+import com.AM.mvpAM.dto.CantidadPorObraDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ObraRiesgoRepository extends JpaRepository<ObraRiesgo, Long> {
     long countByRiesgoTecnicoIdAndObraFechaBajaIsNull(Long riesgoId);
+
+    @Query(
+        "SELECT new com.AM.mvpAM.dto.CantidadPorObraDTO(r.obra.id, COUNT(r)) " +
+        "FROM ObraRiesgo r " +
+        "WHERE r.obra.id IN :obraIds " +
+        "GROUP BY r.obra.id"
+    )
+    List<CantidadPorObraDTO> countRiesgosByObraIds(@Param("obraIds") Collection<Long> obraIds);
 }
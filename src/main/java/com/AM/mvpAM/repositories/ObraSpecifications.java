@@ -0,0 +1,114 @@
+package com.AM.mvpAM.repositories;
+
+import com.AM.mvpAM.dto.ObraFiltro;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.ObraRiesgo;
+import com.AM.mvpAM.enums.Prioridad;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicados combinables para la búsqueda de obras. Cada uno se apoya en un
+ * índice compuesto sobre la columna filtrada (ver db/migration/V2__indices.sql).
+ * Las comparaciones por id de una referencia usan la FK de obra sin join;
+ * departamento, rubro y prioridad sí necesitan el join.
+ */
+public final class ObraSpecifications {
+
+    private ObraSpecifications() {
+    }
+
+    /** Combina los filtros presentes, siempre sobre obras activas. */
+    public static Specification<Obra> deFiltro(ObraFiltro filtro) {
+        List<Specification<Obra>> specs = new ArrayList<>();
+        specs.add(activas());
+        if (filtro.getDepartamentoId() != null) {
+            specs.add(enDepartamento(filtro.getDepartamentoId()));
+        }
+        if (filtro.getLocalidadId() != null) {
+            specs.add(enLocalidad(filtro.getLocalidadId()));
+        }
+        if (filtro.getAnioDesde() != null || filtro.getAnioHasta() != null) {
+            specs.add(anioEntre(filtro.getAnioDesde(), filtro.getAnioHasta()));
+        }
+        if (filtro.getInversionDesde() != null || filtro.getInversionHasta() != null) {
+            specs.add(inversionEntre(filtro.getInversionDesde(), filtro.getInversionHasta()));
+        }
+        if (filtro.getEstadoId() != null) {
+            specs.add(conEstado(filtro.getEstadoId()));
+        }
+        if (filtro.getRubroId() != null) {
+            specs.add(deRubro(filtro.getRubroId()));
+        }
+        if (filtro.getPrioridad() != null) {
+            specs.add(conPrioridad(filtro.getPrioridad()));
+        }
+        if (filtro.getRiesgoId() != null) {
+            specs.add(conRiesgo(filtro.getRiesgoId()));
+        }
+        return Specification.allOf(specs);
+    }
+
+    public static Specification<Obra> activas() {
+        return (root, query, cb) -> cb.isNull(root.get("fechaBaja"));
+    }
+
+    public static Specification<Obra> enDepartamento(Long departamentoId) {
+        return (root, query, cb) -> cb.equal(root.get("localidad").get("departamento").get("id"), departamentoId);
+    }
+
+    public static Specification<Obra> enLocalidad(Long localidadId) {
+        return (root, query, cb) -> cb.equal(root.get("localidad").get("id"), localidadId);
+    }
+
+    public static Specification<Obra> anioEntre(Integer desde, Integer hasta) {
+        return (root, query, cb) -> {
+            if (desde != null && hasta != null) {
+                return cb.between(root.get("anioEjecucion"), desde, hasta);
+            }
+            return desde != null
+                    ? cb.greaterThanOrEqualTo(root.get("anioEjecucion"), desde)
+                    : cb.lessThanOrEqualTo(root.get("anioEjecucion"), hasta);
+        };
+    }
+
+    public static Specification<Obra> inversionEntre(BigDecimal desde, BigDecimal hasta) {
+        return (root, query, cb) -> {
+            if (desde != null && hasta != null) {
+                return cb.between(root.get("inversionFinal"), desde, hasta);
+            }
+            return desde != null
+                    ? cb.greaterThanOrEqualTo(root.get("inversionFinal"), desde)
+                    : cb.lessThanOrEqualTo(root.get("inversionFinal"), hasta);
+        };
+    }
+
+    public static Specification<Obra> conEstado(Long estadoId) {
+        return (root, query, cb) -> cb.equal(root.get("estadoActual").get("id"), estadoId);
+    }
+
+    public static Specification<Obra> deRubro(Long rubroId) {
+        return (root, query, cb) -> cb.equal(root.get("planProyecto").get("rubro").get("id"), rubroId);
+    }
+
+    public static Specification<Obra> conPrioridad(Prioridad prioridad) {
+        return (root, query, cb) -> cb.equal(root.get("planProyecto").get("prioridad"), prioridad);
+    }
+
+    /** EXISTS sobre obra_riesgo: no duplica filas si la obra tiene varios vínculos. */
+    public static Specification<Obra> conRiesgo(Long riesgoId) {
+        return (root, query, cb) -> {
+            Subquery<Long> vinculo = query.subquery(Long.class);
+            Root<ObraRiesgo> r = vinculo.from(ObraRiesgo.class);
+            vinculo.select(r.get("id"))
+                    .where(cb.equal(r.get("riesgoTecnico").get("id"), riesgoId),
+                            cb.equal(r.get("obra"), root));
+            return cb.exists(vinculo);
+        };
+    }
+}
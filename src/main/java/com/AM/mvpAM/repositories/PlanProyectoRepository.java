@@ -1,17 +1,40 @@
 package com.AM.mvpAM.repositories;
 
 import com.AM.mvpAM.entities.PlanProyecto;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import java.util.Optional;
+import java.util.List;
 
 public interface PlanProyectoRepository extends JpaRepository<PlanProyecto, Long> {
     long countBySeEjecutaTrue();
 
     Page<PlanProyecto> findByFechaBajaIsNull(Pageable pageable);
 
+    // El rubro se serializa con el plan: se trae en la misma consulta
+    @Override
+    @EntityGraph(attributePaths = "rubro")
+    Page<PlanProyecto> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "rubro")
+    Slice<PlanProyecto> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     Optional<PlanProyecto> findByIdAndFechaBajaIsNull(Long id);
 
+    // Igual que findByIdAndFechaBajaIsNull, pero servido desde la caché L2
+    default Optional<PlanProyecto> findActivoById(Long id) {
+        return findById(id).filter(x -> x.getFechaBaja() == null);
+    }
+
+    @EntityGraph(attributePaths = "rubro")
+    Optional<PlanProyecto> findConRubroByIdAndFechaBajaIsNull(Long id);
+
+    @Query("SELECT p.id FROM PlanProyecto p WHERE p.fechaBaja IS NULL")
+    List<Long> findIdsActivos();
+
     long countByRubroIdAndFechaBajaIsNull(Long rubroId);
 }
@@ -1,9 +1,12 @@
 package com.AM.mvpAM.repositories;
 
+import com.AM.mvpAM.dto.RiesgoResumenDTO;
 import com.AM.mvpAM.entities.RiesgoTecnico;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,11 +14,31 @@ import java.util.Optional;
 public interface RiesgoTecnicoRepository extends JpaRepository<RiesgoTecnico, Long> {
     Page<RiesgoTecnico> findByFechaBajaIsNull(Pageable pageable);
 
+    Slice<RiesgoTecnico> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     Optional<RiesgoTecnico> findByIdAndFechaBajaIsNull(Long id);
 
+    long countByFechaBajaIsNull();
+
+    // Resumen para el dashboard: sin colecciones, con el nombre de una obra asociada
+    @Query(
+        "SELECT new com.AM.mvpAM.dto.RiesgoResumenDTO(r.id, r.nroRiesgo, r.naturalezaRiesgo, " +
+        "(SELECT MIN(orr.obra.nombreObra) FROM ObraRiesgo orr WHERE orr.riesgoTecnico = r)) " +
+        "FROM RiesgoTecnico r " +
+        "WHERE r.fechaBaja IS NULL " +
+        "ORDER BY r.id DESC"
+    )
+    List<RiesgoResumenDTO> findResumenPendientes(Pageable pageable);
+
+    @Query("SELECT r.id FROM RiesgoTecnico r WHERE r.fechaBaja IS NULL")
+    List<Long> findIdsActivos();
+
     List<RiesgoTecnico> findByObraRiesgosObraIdAndFechaBajaIsNull(Long obraId);
 
     boolean existsByNroRiesgo(Long nroRiesgo);
 
+    @Query("SELECT r.nroRiesgo FROM RiesgoTecnico r WHERE r.nroRiesgo IS NOT NULL")
+    List<Long> findNrosRiesgo();
+
     boolean existsByNroRiesgoAndIdNot(Long nroRiesgo, Long id);
 }
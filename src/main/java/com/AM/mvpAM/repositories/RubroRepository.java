@@ -11,6 +11,11 @@ public interface RubroRepository extends JpaRepository<Rubro, Long> {
 
     Optional<Rubro> findByIdAndFechaBajaIsNull(Long id);
 
+    // Igual que findByIdAndFechaBajaIsNull, pero servido desde la caché L2
+    default Optional<Rubro> findActivoById(Long id) {
+        return findById(id).filter(x -> x.getFechaBaja() == null);
+    }
+
     boolean existsByNombreRubroIgnoreCaseAndFechaBajaIsNull(String nombreRubro);
 
     boolean existsByNombreRubroIgnoreCaseAndFechaBajaIsNullAndIdNot(String nombreRubro, Long id);
@@ -0,0 +1,200 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.Departamento;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Localidad;
+import com.AM.mvpAM.entities.Rubro;
+import com.AM.mvpAM.repositories.DepartamentoRepository;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.repositories.ObraEstadoObraRepository;
+import com.AM.mvpAM.repositories.PlanProyectoRepository;
+import com.AM.mvpAM.repositories.RubroRepository;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Altas, bajas y modificaciones del catálogo de referencia (rubros, estados
+ * de obra, departamentos y localidades). Las lecturas salen de
+ * {@link CatalogoService}, que se entera de estos cambios al commit.
+ * Vacío / false indica que la entidad no existe; los errores de validación
+ * se informan con IllegalArgumentException.
+ */
+@Service
+public class CatalogoAbmService {
+
+    private final RubroRepository rubroRepository;
+    private final EstadoObraRepository estadoObraRepository;
+    private final DepartamentoRepository departamentoRepository;
+    private final LocalidadRepository localidadRepository;
+    private final PlanProyectoRepository planProyectoRepository;
+    private final ObraEstadoObraRepository obraEstadoObraRepository;
+
+    public CatalogoAbmService(RubroRepository rubroRepository,
+                              EstadoObraRepository estadoObraRepository,
+                              DepartamentoRepository departamentoRepository,
+                              LocalidadRepository localidadRepository,
+                              PlanProyectoRepository planProyectoRepository,
+                              ObraEstadoObraRepository obraEstadoObraRepository) {
+        this.rubroRepository = rubroRepository;
+        this.estadoObraRepository = estadoObraRepository;
+        this.departamentoRepository = departamentoRepository;
+        this.localidadRepository = localidadRepository;
+        this.planProyectoRepository = planProyectoRepository;
+        this.obraEstadoObraRepository = obraEstadoObraRepository;
+    }
+
+    // ---- Rubros ----
+
+    @Transactional
+    public Rubro crearRubro(Rubro rubro) {
+        requerido(rubro.getNombreRubro(), "Nombre de rubro requerido");
+        if (rubroRepository.existsByNombreRubroIgnoreCaseAndFechaBajaIsNull(rubro.getNombreRubro())) {
+            throw new IllegalArgumentException("Ya existe un rubro con ese nombre");
+        }
+        return rubroRepository.save(rubro);
+    }
+
+    @Transactional
+    public Optional<Rubro> actualizarRubro(Long id, Rubro datos) {
+        Optional<Rubro> existente = rubroRepository.findByIdAndFechaBajaIsNull(id);
+        if (existente.isPresent()) {
+            requerido(datos.getNombreRubro(), "Nombre de rubro requerido");
+            if (rubroRepository.existsByNombreRubroIgnoreCaseAndFechaBajaIsNullAndIdNot(datos.getNombreRubro(), id)) {
+                throw new IllegalArgumentException("Ya existe un rubro con ese nombre");
+            }
+            existente.get().setNombreRubro(datos.getNombreRubro());
+        }
+        return existente;
+    }
+
+    @Transactional
+    public boolean darDeBajaRubro(Long id) {
+        Optional<Rubro> rubro = rubroRepository.findByIdAndFechaBajaIsNull(id);
+        if (rubro.isEmpty()) {
+            return false;
+        }
+        if (planProyectoRepository.countByRubroIdAndFechaBajaIsNull(id) > 0) {
+            throw new IllegalArgumentException("El rubro está asociado a un plan activo");
+        }
+        rubro.get().setFechaBaja(LocalDateTime.now());
+        return true;
+    }
+
+    // ---- Estados de obra ----
+
+    @Transactional
+    public EstadoObra crearEstado(EstadoObra estado) {
+        requerido(estado.getNombreEstadoObra(), "Nombre de estado requerido");
+        if (estadoObraRepository.existsByNombreEstadoObraIgnoreCaseAndFechaBajaIsNull(estado.getNombreEstadoObra())) {
+            throw new IllegalArgumentException("Ya existe un estado con ese nombre");
+        }
+        return estadoObraRepository.save(estado);
+    }
+
+    @Transactional
+    public Optional<EstadoObra> actualizarEstado(Long id, EstadoObra datos) {
+        Optional<EstadoObra> existente = estadoObraRepository.findByIdAndFechaBajaIsNull(id);
+        if (existente.isPresent()) {
+            requerido(datos.getNombreEstadoObra(), "Nombre de estado requerido");
+            if (estadoObraRepository.existsByNombreEstadoObraIgnoreCaseAndFechaBajaIsNullAndIdNot(datos.getNombreEstadoObra(), id)) {
+                throw new IllegalArgumentException("Ya existe un estado con ese nombre");
+            }
+            existente.get().setNombreEstadoObra(datos.getNombreEstadoObra());
+        }
+        return existente;
+    }
+
+    @Transactional
+    public boolean darDeBajaEstado(Long id) {
+        Optional<EstadoObra> estado = estadoObraRepository.findByIdAndFechaBajaIsNull(id);
+        if (estado.isEmpty()) {
+            return false;
+        }
+        if (obraEstadoObraRepository.countByEstadoObraIdAndObraFechaBajaIsNull(id) > 0) {
+            throw new IllegalArgumentException("El estado está asociado a una obra activa");
+        }
+        estado.get().setFechaBaja(LocalDateTime.now());
+        return true;
+    }
+
+    // ---- Departamentos ----
+
+    @Transactional
+    public Departamento crearDepartamento(Departamento departamento) {
+        requerido(departamento.getNombreDepartamento(), "Nombre de departamento requerido");
+        if (departamentoRepository.existsByNombreDepartamentoIgnoreCaseAndFechaBajaIsNull(departamento.getNombreDepartamento())) {
+            throw new IllegalArgumentException("Ya existe un departamento con ese nombre");
+        }
+        return departamentoRepository.save(departamento);
+    }
+
+    @Transactional
+    public Optional<Departamento> actualizarDepartamento(Long id, Departamento datos) {
+        requerido(datos.getNombreDepartamento(), "Nombre de departamento requerido");
+        Optional<Departamento> existente = departamentoRepository.findByIdAndFechaBajaIsNull(id);
+        existente.ifPresent(d -> d.setNombreDepartamento(datos.getNombreDepartamento()));
+        return existente;
+    }
+
+    @Transactional
+    public boolean darDeBajaDepartamento(Long id) {
+        Optional<Departamento> departamento = departamentoRepository.findByIdAndFechaBajaIsNull(id);
+        if (departamento.isEmpty()) {
+            return false;
+        }
+        if (localidadRepository.existsByDepartamentoIdAndFechaBajaIsNull(id)) {
+            throw new IllegalArgumentException("No se puede dar de baja un departamento con localidades activas");
+        }
+        departamento.get().setFechaBaja(LocalDateTime.now());
+        return true;
+    }
+
+    // ---- Localidades ----
+
+    @Transactional
+    public Localidad crearLocalidad(Localidad localidad) {
+        requerido(localidad.getNombreLocalidad(), "Nombre de localidad requerido");
+        if (localidad.getDepartamento() == null || localidad.getDepartamento().getId() == null) {
+            throw new IllegalArgumentException("Departamento requerido");
+        }
+        Departamento departamento = departamentoRepository.findActivoById(localidad.getDepartamento().getId())
+                .orElseThrow(() -> new IllegalArgumentException("Departamento no encontrado"));
+        localidad.setDepartamento(departamento);
+        return localidadRepository.save(localidad);
+    }
+
+    @Transactional
+    public Optional<Localidad> actualizarLocalidad(Long id, Localidad datos) {
+        requerido(datos.getNombreLocalidad(), "Nombre de localidad requerido");
+        Optional<Localidad> existente = localidadRepository.findByIdAndFechaBajaIsNull(id);
+        if (existente.isPresent()) {
+            Localidad l = existente.get();
+            l.setNombreLocalidad(datos.getNombreLocalidad());
+            if (datos.getDepartamento() != null && datos.getDepartamento().getId() != null) {
+                l.setDepartamento(departamentoRepository.findActivoById(datos.getDepartamento().getId())
+                        .orElseThrow(() -> new IllegalArgumentException("Departamento inválido o dado de baja")));
+            }
+            // El departamento se serializa con la localidad
+            Hibernate.initialize(l.getDepartamento());
+        }
+        return existente;
+    }
+
+    @Transactional
+    public boolean darDeBajaLocalidad(Long id) {
+        Optional<Localidad> localidad = localidadRepository.findByIdAndFechaBajaIsNull(id);
+        localidad.ifPresent(l -> l.setFechaBaja(LocalDateTime.now()));
+        return localidad.isPresent();
+    }
+
+    private static void requerido(String valor, String mensaje) {
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException(mensaje);
+        }
+    }
+}
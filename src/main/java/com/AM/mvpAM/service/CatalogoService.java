@@ -0,0 +1,245 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.Base;
+import com.AM.mvpAM.entities.Departamento;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Localidad;
+import com.AM.mvpAM.entities.Rubro;
+import com.AM.mvpAM.repositories.DepartamentoRepository;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.repositories.RubroRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catálogo de referencia (rubros, estados de obra, departamentos y
+ * localidades) en memoria. Se sirve desde una instantánea inmutable con
+ * número de versión; cualquier alta, cambio o baja de esas entidades
+ * (evento post-commit de Hibernate) incrementa la versión y la instantánea
+ * se vuelve a armar en la próxima lectura. La versión es la base del ETag
+ * de los GET de esos controllers.
+ */
+@Service
+public class CatalogoService implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final RubroRepository rubroRepository;
+    private final EstadoObraRepository estadoObraRepository;
+    private final DepartamentoRepository departamentoRepository;
+    private final LocalidadRepository localidadRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    // Distingue versiones de distintos arranques (la base en memoria se vuelve a sembrar)
+    private final String arranque = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong cambios = new AtomicLong(1);
+    private volatile Catalogo catalogo;
+
+    public CatalogoService(RubroRepository rubroRepository,
+                           EstadoObraRepository estadoObraRepository,
+                           DepartamentoRepository departamentoRepository,
+                           LocalidadRepository localidadRepository,
+                           EntityManagerFactory entityManagerFactory,
+                           TransactionTemplate transactionTemplate) {
+        this.rubroRepository = rubroRepository;
+        this.estadoObraRepository = estadoObraRepository;
+        this.departamentoRepository = departamentoRepository;
+        this.localidadRepository = localidadRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /** Instantánea vigente; se reconstruye si hubo escrituras desde la última. */
+    public Catalogo actual() {
+        Catalogo vigente = catalogo;
+        long version = cambios.get();
+        if (vigente != null && vigente.version() == version) {
+            return vigente;
+        }
+        synchronized (this) {
+            vigente = catalogo;
+            version = cambios.get();
+            if (vigente == null || vigente.version() != version) {
+                // Se lee la versión antes de consultar: un cambio concurrente fuerza otra reconstrucción
+                long leida = version;
+                vigente = transactionTemplate.execute(status -> construir(leida));
+                catalogo = vigente;
+            }
+            return vigente;
+        }
+    }
+
+    private Catalogo construir(long version) {
+        List<Rubro> rubros = new ArrayList<>();
+        for (Rubro r : rubroRepository.findAll()) {
+            Rubro copia = new Rubro(r.getNombreRubro());
+            copiarBase(r, copia);
+            rubros.add(copia);
+        }
+        List<EstadoObra> estados = new ArrayList<>();
+        for (EstadoObra e : estadoObraRepository.findAll()) {
+            EstadoObra copia = new EstadoObra(e.getNombreEstadoObra());
+            copiarBase(e, copia);
+            estados.add(copia);
+        }
+        List<Departamento> departamentos = new ArrayList<>();
+        Map<Long, Departamento> departamentoPorId = new HashMap<>();
+        for (Departamento d : departamentoRepository.findAll()) {
+            Departamento copia = new Departamento();
+            copia.setNombreDepartamento(d.getNombreDepartamento());
+            copiarBase(d, copia);
+            departamentos.add(copia);
+            departamentoPorId.put(copia.getId(), copia);
+        }
+        List<Localidad> localidades = new ArrayList<>();
+        for (Localidad l : localidadRepository.findAll()) {
+            // El id del departamento se lee del proxy sin inicializarlo
+            Departamento departamento = l.getDepartamento() != null
+                    ? departamentoPorId.get(l.getDepartamento().getId())
+                    : null;
+            Localidad copia = new Localidad(l.getNombreLocalidad(), departamento);
+            copiarBase(l, copia);
+            localidades.add(copia);
+        }
+
+        Map<Long, List<Localidad>> porDepartamento = new HashMap<>();
+        for (Localidad l : localidades) {
+            if (l.getFechaBaja() == null && l.getDepartamento() != null) {
+                porDepartamento.computeIfAbsent(l.getDepartamento().getId(), k -> new ArrayList<>()).add(l);
+            }
+        }
+        Map<Long, List<Localidad>> porDepartamentoInmutable = new HashMap<>();
+        porDepartamento.forEach((id, lista) -> porDepartamentoInmutable.put(id, List.copyOf(lista)));
+
+        return new Catalogo(version, arranque + "-" + version,
+                new Lista<>(rubros), new Lista<>(estados), new Lista<>(departamentos), new Lista<>(localidades),
+                Map.copyOf(porDepartamentoInmutable));
+    }
+
+    private static void copiarBase(Base origen, Base copia) {
+        copia.setId(origen.getId());
+        copia.setFechaAlta(origen.getFechaAlta());
+        copia.setFechaBaja(origen.getFechaBaja());
+    }
+
+    // ---- eventos de Hibernate (después del commit) ----
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        registrarCambio(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        registrarCambio(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        registrarCambio(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return esCatalogo(persister.getMappedClass());
+    }
+
+    private void registrarCambio(Object entity) {
+        if (entity != null && esCatalogo(entity.getClass())) {
+            cambios.incrementAndGet();
+        }
+    }
+
+    private static boolean esCatalogo(Class<?> clase) {
+        return clase == Rubro.class || clase == EstadoObra.class
+                || clase == Departamento.class || clase == Localidad.class;
+    }
+
+    /**
+     * Instantánea inmutable. Las entidades son copias desacopladas de la
+     * sesión: no deben modificarse.
+     */
+    public record Catalogo(long version,
+                           String etag,
+                           Lista<Rubro> rubros,
+                           Lista<EstadoObra> estados,
+                           Lista<Departamento> departamentos,
+                           Lista<Localidad> localidades,
+                           Map<Long, List<Localidad>> localidadesPorDepartamento) {
+
+        public List<Localidad> localidadesDe(Long departamentoId) {
+            return localidadesPorDepartamento.getOrDefault(departamentoId, List.of());
+        }
+    }
+
+    /** Vista de una entidad del catálogo: todas, activas e índice por id de las activas. */
+    public static final class Lista<T extends Base> {
+        private final List<T> todas;
+        private final List<T> activas;
+        private final Map<Long, T> activasPorId;
+
+        Lista(List<T> entidades) {
+            this.todas = List.copyOf(entidades);
+            this.activas = entidades.stream().filter(e -> e.getFechaBaja() == null).toList();
+            Map<Long, T> porId = new LinkedHashMap<>();
+            for (T e : activas) {
+                porId.put(e.getId(), e);
+            }
+            this.activasPorId = Map.copyOf(porId);
+        }
+
+        public List<T> todas() {
+            return todas;
+        }
+
+        public List<T> activas() {
+            return activas;
+        }
+
+        public Optional<T> activa(Long id) {
+            return Optional.ofNullable(id == null ? null : activasPorId.get(id));
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.dto.DashboardStats;
+import com.AM.mvpAM.dto.InversionPorRubroDTO;
+import com.AM.mvpAM.dto.ObrasPorEstadoDTO;
+import com.AM.mvpAM.dto.TotalPorIdDTO;
+import com.AM.mvpAM.entities.Base;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.PlanProyecto;
+import com.AM.mvpAM.entities.RiesgoTecnico;
+import com.AM.mvpAM.entities.Rubro;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.repositories.PlanProyectoRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import com.AM.mvpAM.repositories.RubroRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Agregados del dashboard mantenidos en memoria. Se reconstruyen desde la
+ * base al iniciar (y periódicamente, como reconciliación) y entre medio se
+ * actualizan con los eventos post-commit de Hibernate sobre Obra,
+ * PlanProyecto, RiesgoTecnico, EstadoObra y Rubro. Las lecturas devuelven una
+ * instantánea inmutable ya armada, sin consultar la base.
+ * <p>
+ * El estado de cada obra se toma de la columna desnormalizada estadoActual,
+ * que se escribe junto con cada ObraEstadoObra, así que alcanza con escuchar
+ * los cambios de Obra.
+ */
+@Service
+public class DashboardAggregates implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ObraRepository obraRepository;
+    private final PlanProyectoRepository planProyectoRepository;
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final EstadoObraRepository estadoObraRepository;
+    private final RubroRepository rubroRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    // Estado mutable: sólo se toca con el lock del objeto tomado
+    private long totalObras;
+    private BigDecimal inversionTotal = BigDecimal.ZERO;
+    private long riesgosPendientes;
+    private long planesActivos;
+    private final Map<Long, Long> obrasPorEstadoId = new HashMap<>();
+    private final Map<Long, BigDecimal> inversionPorPlanId = new HashMap<>();
+    private final Map<Long, BigDecimal> inversionPorRubroId = new HashMap<>();
+    private final Map<Long, PlanInfo> planes = new HashMap<>();
+    private final Map<Long, String> nombresEstado = new HashMap<>();
+    private final Map<Long, String> nombresRubro = new HashMap<>();
+    private boolean listo;
+    private boolean desincronizado;
+    // Eventos recibidos desde el arranque, para detectar commits durante una reconstrucción
+    private long cambios;
+
+    // Una reconstrucción a la vez; no bloquea a los eventos
+    private final Object reconstruccion = new Object();
+
+    private volatile Snapshot snapshot = Snapshot.VACIO;
+
+    public DashboardAggregates(ObraRepository obraRepository,
+                               PlanProyectoRepository planProyectoRepository,
+                               RiesgoTecnicoRepository riesgoTecnicoRepository,
+                               EstadoObraRepository estadoObraRepository,
+                               RubroRepository rubroRepository,
+                               EntityManagerFactory entityManagerFactory,
+                               TransactionTemplate transactionTemplate) {
+        this.obraRepository = obraRepository;
+        this.planProyectoRepository = planProyectoRepository;
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.estadoObraRepository = estadoObraRepository;
+        this.rubroRepository = rubroRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    public DashboardStats getStats() {
+        return instantanea().stats();
+    }
+
+    public List<ObrasPorEstadoDTO> getObrasPorEstado() {
+        return instantanea().obrasPorEstado();
+    }
+
+    public List<InversionPorRubroDTO> getInversionPorRubro() {
+        return instantanea().inversionPorRubro();
+    }
+
+    private Snapshot instantanea() {
+        if (hayQueReconstruir()) {
+            synchronized (reconstruccion) {
+                // Otro lector pudo haberla hecho mientras se esperaba
+                if (hayQueReconstruir()) {
+                    reconstruir();
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private synchronized boolean hayQueReconstruir() {
+        return !listo || desincronizado;
+    }
+
+    /**
+     * Recalcula todo desde la base. Corre al arrancar (después del backfill de
+     * estadoActual), periódicamente y cuando un evento no trae el estado previo.
+     * <p>
+     * Las consultas corren sin el lock del objeto, así que los eventos siguen
+     * aplicándose mientras tanto, y el resultado se publica bajo el lock. Si
+     * llegó algún commit durante la lectura, la base pudo verlo o no: cuando
+     * los agregados vivos son válidos (ya sumaron esos commits, en orden) se
+     * descarta la lectura y se reintenta en la próxima reconciliación; si no
+     * lo son, se publica la lectura y se vuelve a leer en la próxima consulta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @Scheduled(fixedDelayString = "${dashboard.agregados.reconciliacion:PT10M}",
+            initialDelayString = "${dashboard.agregados.reconciliacion:PT10M}")
+    public void reconstruir() {
+        synchronized (reconstruccion) {
+            long inicio;
+            synchronized (this) {
+                inicio = cambios;
+            }
+            Lectura lectura = transactionTemplate.execute(status -> leer());
+            synchronized (this) {
+                boolean huboCambios = cambios != inicio;
+                if (huboCambios && listo && !desincronizado) {
+                    return;
+                }
+                totalObras = lectura.totalObras();
+                inversionTotal = lectura.inversionTotal();
+                riesgosPendientes = lectura.riesgosPendientes();
+                planesActivos = lectura.planesActivos();
+                reemplazar(obrasPorEstadoId, lectura.obrasPorEstadoId());
+                reemplazar(inversionPorPlanId, lectura.inversionPorPlanId());
+                reemplazar(inversionPorRubroId, lectura.inversionPorRubroId());
+                reemplazar(planes, lectura.planes());
+                reemplazar(nombresEstado, lectura.nombresEstado());
+                reemplazar(nombresRubro, lectura.nombresRubro());
+                listo = true;
+                desincronizado = huboCambios;
+                publicar();
+            }
+        }
+    }
+
+    private Lectura leer() {
+        Map<Long, String> estados = new HashMap<>();
+        for (EstadoObra estado : estadoObraRepository.findAll()) {
+            estados.put(estado.getId(), estado.getNombreEstadoObra());
+        }
+        Map<Long, String> rubros = new HashMap<>();
+        for (Rubro rubro : rubroRepository.findAll()) {
+            rubros.put(rubro.getId(), rubro.getNombreRubro());
+        }
+
+        Map<Long, PlanInfo> infoPlanes = new HashMap<>();
+        long activos = 0;
+        for (PlanProyecto plan : planProyectoRepository.findAll()) {
+            PlanInfo info = new PlanInfo(id(plan.getRubro()), enEjecucion(plan.getSeEjecuta(), plan.getFechaBaja()));
+            infoPlanes.put(plan.getId(), info);
+            if (info.enEjecucion()) {
+                activos++;
+            }
+        }
+
+        Map<Long, Long> porEstado = new HashMap<>();
+        for (TotalPorIdDTO total : obraRepository.totalesPorEstadoActual()) {
+            porEstado.put(total.getId(), total.getCantidad());
+        }
+        Map<Long, BigDecimal> porPlan = new HashMap<>();
+        Map<Long, BigDecimal> porRubro = new HashMap<>();
+        for (TotalPorIdDTO total : obraRepository.totalesPorPlan()) {
+            porPlan.put(total.getId(), total.getSuma());
+            PlanInfo plan = infoPlanes.get(total.getId());
+            if (plan != null && plan.rubroId() != null) {
+                porRubro.merge(plan.rubroId(), total.getSuma(), BigDecimal::add);
+            }
+        }
+
+        return new Lectura(obraRepository.countByFechaBajaIsNull(), obraRepository.sumInversion(),
+                riesgoTecnicoRepository.countByFechaBajaIsNull(), activos,
+                porEstado, porPlan, porRubro, infoPlanes, estados, rubros);
+    }
+
+    private static <K, V> void reemplazar(Map<K, V> destino, Map<K, V> origen) {
+        destino.clear();
+        destino.putAll(origen);
+    }
+
+    // ---- eventos de Hibernate (después del commit) ----
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        aplicar(event.getEntity(), event.getPersister(), null, event.getState(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            marcarDesincronizado(event.getEntity());
+            return;
+        }
+        aplicar(event.getEntity(), event.getPersister(), event.getOldState(), event.getState(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        aplicar(event.getEntity(), event.getPersister(), event.getDeletedState(), null, event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> clase = persister.getMappedClass();
+        return clase == Obra.class || clase == PlanProyecto.class || clase == RiesgoTecnico.class
+                || clase == EstadoObra.class || clase == Rubro.class;
+    }
+
+    private void marcarDesincronizado(Object entity) {
+        if (entity instanceof Obra || entity instanceof PlanProyecto || entity instanceof RiesgoTecnico
+                || entity instanceof EstadoObra || entity instanceof Rubro) {
+            synchronized (this) {
+                cambios++;
+                desincronizado = true;
+            }
+        }
+    }
+
+    private void aplicar(Object entity, EntityPersister persister, Object[] antes, Object[] despues, Object id) {
+        synchronized (this) {
+            cambios++;
+            if (!listo) {
+                return;
+            }
+            if (entity instanceof Obra) {
+                aplicarObra(persister, antes, -1);
+                aplicarObra(persister, despues, 1);
+            } else if (entity instanceof PlanProyecto) {
+                aplicarPlan(persister, (Long) id, antes, despues);
+            } else if (entity instanceof RiesgoTecnico) {
+                riesgosPendientes += activo(persister, despues) - activo(persister, antes);
+            } else if (entity instanceof EstadoObra) {
+                renombrar(nombresEstado, (Long) id, despues != null ? (String) valor(persister, despues, "nombreEstadoObra") : null);
+            } else if (entity instanceof Rubro) {
+                renombrar(nombresRubro, (Long) id, despues != null ? (String) valor(persister, despues, "nombreRubro") : null);
+            } else {
+                return;
+            }
+            publicar();
+        }
+    }
+
+    private void aplicarObra(EntityPersister persister, Object[] estado, int signo) {
+        if (estado == null || valor(persister, estado, "fechaBaja") != null) {
+            return;
+        }
+        BigDecimal inversion = (BigDecimal) valor(persister, estado, "inversionFinal");
+        BigDecimal delta = inversion == null ? BigDecimal.ZERO : (signo < 0 ? inversion.negate() : inversion);
+
+        totalObras += signo;
+        inversionTotal = inversionTotal.add(delta);
+
+        Long estadoId = id(valor(persister, estado, "estadoActual"));
+        if (estadoId != null) {
+            obrasPorEstadoId.merge(estadoId, (long) signo, Long::sum);
+        }
+        Long planId = id(valor(persister, estado, "planProyecto"));
+        if (planId != null) {
+            inversionPorPlanId.merge(planId, delta, BigDecimal::add);
+            PlanInfo plan = planes.get(planId);
+            if (plan != null && plan.rubroId() != null) {
+                inversionPorRubroId.merge(plan.rubroId(), delta, BigDecimal::add);
+            }
+        }
+    }
+
+    private void aplicarPlan(EntityPersister persister, Long planId, Object[] antes, Object[] despues) {
+        PlanInfo anterior = planes.remove(planId);
+        if (anterior != null && anterior.enEjecucion()) {
+            planesActivos--;
+        }
+        PlanInfo nuevo = null;
+        if (despues != null) {
+            nuevo = new PlanInfo(id(valor(persister, despues, "rubro")),
+                    enEjecucion((Boolean) valor(persister, despues, "seEjecuta"),
+                            (LocalDateTime) valor(persister, despues, "fechaBaja")));
+            planes.put(planId, nuevo);
+            if (nuevo.enEjecucion()) {
+                planesActivos++;
+            }
+        }
+
+        // Si cambió el rubro, la inversión de las obras del plan pasa al rubro nuevo
+        Long rubroAnterior = anterior != null ? anterior.rubroId() : null;
+        Long rubroNuevo = nuevo != null ? nuevo.rubroId() : null;
+        BigDecimal inversionPlan = inversionPorPlanId.get(planId);
+        if (inversionPlan != null && !Objects.equals(rubroAnterior, rubroNuevo)) {
+            if (rubroAnterior != null) {
+                inversionPorRubroId.merge(rubroAnterior, inversionPlan.negate(), BigDecimal::add);
+            }
+            if (rubroNuevo != null) {
+                inversionPorRubroId.merge(rubroNuevo, inversionPlan, BigDecimal::add);
+            }
+        }
+    }
+
+    private static void renombrar(Map<Long, String> nombres, Long id, String nombre) {
+        if (nombre == null) {
+            nombres.remove(id);
+        } else {
+            nombres.put(id, nombre);
+        }
+    }
+
+    private static int activo(EntityPersister persister, Object[] estado) {
+        return estado != null && valor(persister, estado, "fechaBaja") == null ? 1 : 0;
+    }
+
+    private static boolean enEjecucion(Boolean seEjecuta, LocalDateTime fechaBaja) {
+        return Boolean.TRUE.equals(seEjecuta) && fechaBaja == null;
+    }
+
+    private static Object valor(EntityPersister persister, Object[] estado, String propiedad) {
+        int indice = Arrays.asList(persister.getPropertyNames()).indexOf(propiedad);
+        return indice >= 0 ? estado[indice] : null;
+    }
+
+    // El id de un proxy se lee sin inicializarlo
+    private static Long id(Object entidad) {
+        return entidad instanceof Base base ? base.getId() : null;
+    }
+
+    /** Arma la instantánea inmutable que se sirve a los lectores. */
+    private void publicar() {
+        Map<String, Long> porEstado = new LinkedHashMap<>();
+        obrasPorEstadoId.forEach((estadoId, cantidad) -> {
+            String nombre = nombresEstado.get(estadoId);
+            if (nombre != null && cantidad > 0) {
+                porEstado.merge(nombre, cantidad, Long::sum);
+            }
+        });
+        Map<String, BigDecimal> porRubro = new LinkedHashMap<>();
+        inversionPorRubroId.forEach((rubroId, inversion) -> {
+            String nombre = nombresRubro.get(rubroId);
+            if (nombre != null && inversion.signum() != 0) {
+                porRubro.merge(nombre, inversion, BigDecimal::add);
+            }
+        });
+
+        List<ObrasPorEstadoDTO> estados = new ArrayList<>();
+        porEstado.forEach((nombre, cantidad) -> estados.add(new ObrasPorEstadoDTO(nombre, cantidad)));
+        List<InversionPorRubroDTO> rubros = new ArrayList<>();
+        porRubro.forEach((nombre, inversion) -> rubros.add(new InversionPorRubroDTO(nombre, inversion)));
+
+        snapshot = new Snapshot(
+                new DashboardStats(totalObras, planesActivos, inversionTotal, riesgosPendientes),
+                List.copyOf(estados),
+                List.copyOf(rubros));
+    }
+
+    private record PlanInfo(Long rubroId, boolean enEjecucion) {
+    }
+
+    private record Lectura(long totalObras,
+                           BigDecimal inversionTotal,
+                           long riesgosPendientes,
+                           long planesActivos,
+                           Map<Long, Long> obrasPorEstadoId,
+                           Map<Long, BigDecimal> inversionPorPlanId,
+                           Map<Long, BigDecimal> inversionPorRubroId,
+                           Map<Long, PlanInfo> planes,
+                           Map<Long, String> nombresEstado,
+                           Map<Long, String> nombresRubro) {
+    }
+
+    private record Snapshot(DashboardStats stats,
+                            List<ObrasPorEstadoDTO> obrasPorEstado,
+                            List<InversionPorRubroDTO> inversionPorRubro) {
+        static final Snapshot VACIO = new Snapshot(
+                new DashboardStats(0, 0, BigDecimal.ZERO, 0), List.of(), List.of());
+    }
+}
@@ -0,0 +1,113 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.config.ConsultasSql;
+import com.AM.mvpAM.dto.DashboardSummaryDTO;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Arma el resumen del dashboard en una sola llamada. Cada sección corre en su
+ * propio hilo virtual, así que la latencia es la de la sección más lenta y no
+ * la suma. Una sección que falla o supera el timeout no tumba la respuesta:
+ * queda en null y se informa en errores.
+ */
+@Service
+public class DashboardSummaryService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSummaryService.class);
+
+    public static final int MAX_RECIENTES = 50;
+
+    /**
+     * Conexiones que un resumen puede tener abiertas a la vez: obras recientes,
+     * riesgos pendientes y una posible reconstrucción de los agregados (las
+     * demás secciones la esperan sin conexión). Lo usa JdbcConcurrencyGuard.
+     */
+    public static final int CONEXIONES = 3;
+
+    private final DashboardAggregates dashboardAggregates;
+    private final ObraService obraService;
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final Duration timeout;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DashboardSummaryService(DashboardAggregates dashboardAggregates,
+                                   ObraService obraService,
+                                   RiesgoTecnicoRepository riesgoTecnicoRepository,
+                                   @Value("${dashboard.summary.timeout:PT2S}") Duration timeout) {
+        this.dashboardAggregates = dashboardAggregates;
+        this.obraService = obraService;
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.timeout = timeout;
+    }
+
+    public DashboardSummaryDTO resumen(int recientes) {
+        int cantidad = Math.max(1, Math.min(recientes, MAX_RECIENTES));
+
+        var stats = enParalelo(dashboardAggregates::getStats);
+        var porEstado = enParalelo(dashboardAggregates::getObrasPorEstado);
+        var porRubro = enParalelo(dashboardAggregates::getInversionPorRubro);
+        var obras = enParalelo(() -> obraService
+                .listarActivas(PageRequest.of(0, cantidad, Sort.by(Sort.Direction.DESC, "id")))
+                .getContent());
+        var riesgos = enParalelo(() -> riesgoTecnicoRepository
+                .findResumenPendientes(PageRequest.of(0, cantidad)));
+
+        // Todas las secciones arrancan juntas: comparten el mismo plazo
+        long limite = System.nanoTime() + timeout.toNanos();
+        List<String> errores = new ArrayList<>();
+        DashboardSummaryDTO dto = new DashboardSummaryDTO();
+        dto.setStats(esperar("stats", stats, limite, errores));
+        dto.setObrasPorEstado(esperar("obrasPorEstado", porEstado, limite, errores));
+        dto.setInversionPorRubro(esperar("inversionPorRubro", porRubro, limite, errores));
+        dto.setObrasRecientes(esperar("obrasRecientes", obras, limite, errores));
+        dto.setRiesgosPendientes(esperar("riesgosPendientes", riesgos, limite, errores));
+        dto.setParcial(!errores.isEmpty());
+        dto.setErrores(errores);
+        return dto;
+    }
+
+    // Las sentencias de cada sección se suman al contador SQL del request
+    private <T> Future<T> enParalelo(Callable<T> seccion) {
+        return executor.submit(ConsultasSql.propagar(seccion));
+    }
+
+    private static <T> T esperar(String seccion, Future<T> future, long limite, List<String> errores) {
+        try {
+            return future.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            errores.add(seccion + ": tiempo de espera agotado");
+        } catch (ExecutionException e) {
+            log.warn("Sección {} del dashboard falló", seccion, e.getCause());
+            errores.add(seccion + ": error al obtener los datos");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            errores.add(seccion + ": interrumpido");
+        }
+        return null;
+    }
+
+    @PreDestroy
+    void cerrar() {
+        executor.shutdownNow();
+    }
+}
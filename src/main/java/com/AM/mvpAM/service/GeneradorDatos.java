@@ -0,0 +1,308 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.*;
+import com.AM.mvpAM.enums.Prioridad;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de datos sintéticos a escala (perfil {@code seed}):
+ * <pre>
+ *   java -jar app.jar --spring.profiles.active=seed --seed.obras=1000000
+ * </pre>
+ * Arma un grafo consistente: departamentos con sus localidades, rubros con sus
+ * planes, riesgos técnicos y obras con historial de estados (el último abierto
+ * y copiado en estadoActual), vínculos a riesgos y a rubros. Las obras se
+ * cargan en lotes de {@code seed.lote}, cada uno en su transacción, repartidos
+ * entre {@code seed.hilos} hilos; los INSERT van en batches JDBC (pooled-lo).
+ * <p>
+ * Reproducible con {@code seed.semilla}: cada lote usa su propio Random derivado
+ * de la semilla y de su número, así el contenido no depende del orden en que
+ * corran los hilos (los ids sí, porque salen de las secuencias).
+ * Si ya hay datos generados (riesgos u obras con su numeración, bajas
+ * incluidas) no hace nada; si quedaron a medias lo avisa, porque los lotes no
+ * se pueden retomar.
+ */
+@Component
+@Profile("seed")
+public class GeneradorDatos implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneradorDatos.class);
+
+    // Numeración propia, lejos de la de los datos de ejemplo
+    static final long NRO_OBRA_BASE = 1_000_000L;
+    static final long NRO_RIESGO_BASE = 100_000L;
+
+    private static final String[] ESTADOS = {"Planificacion", "Ejecucion", "Finalizada"};
+    private static final String[] RUBROS = {"Infraestructura", "Turismo", "Salud", "Educacion", "Vivienda",
+            "Agua y saneamiento", "Energia", "Transporte", "Deporte", "Cultura", "Seguridad", "Ambiente"};
+    private static final String[] TIPOS_OBRA = {"Pavimentacion", "Ampliacion", "Refaccion", "Construccion",
+            "Puesta en valor", "Red de agua", "Red cloacal", "Alumbrado", "Desagues pluviales", "Bicisenda"};
+    private static final String[] LUGARES = {"Escuela", "Hospital", "Plaza", "Avenida", "Barrio", "Centro de salud",
+            "Polideportivo", "Terminal", "Parque", "Ruta provincial", "Calle", "Costanera"};
+    private static final String[] RIESGOS = {"Ambiental", "Estructural", "Financiero", "Climatico", "Legal",
+            "Social", "Geotecnico", "De suministro"};
+
+    private final ObraRepository obraRepository;
+    private final EstadoObraRepository estadoObraRepository;
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int obras;
+    private final int departamentos;
+    private final int localidadesPorDepartamento;
+    private final int planesPorRubro;
+    private final int riesgos;
+    private final int lote;
+    private final int hilos;
+    private final long semilla;
+
+    public GeneradorDatos(ObraRepository obraRepository,
+                          EstadoObraRepository estadoObraRepository,
+                          RiesgoTecnicoRepository riesgoTecnicoRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${seed.obras:100000}") int obras,
+                          @Value("${seed.departamentos:20}") int departamentos,
+                          @Value("${seed.localidades-por-departamento:15}") int localidadesPorDepartamento,
+                          @Value("${seed.planes-por-rubro:40}") int planesPorRubro,
+                          @Value("${seed.riesgos:2000}") int riesgos,
+                          @Value("${seed.lote:1000}") int lote,
+                          @Value("${seed.hilos:0}") int hilos,
+                          @Value("${seed.semilla:42}") long semilla) {
+        this.obraRepository = obraRepository;
+        this.estadoObraRepository = estadoObraRepository;
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.obras = obras;
+        this.departamentos = departamentos;
+        this.localidadesPorDepartamento = localidadesPorDepartamento;
+        this.planesPorRubro = planesPorRubro;
+        this.riesgos = riesgos;
+        this.lote = Math.max(1, lote);
+        this.hilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.semilla = semilla;
+    }
+
+    @Override
+    public void run(String... args) {
+        long existentes = obraRepository.countByNroObraBetween(NRO_OBRA_BASE + 1, NRO_OBRA_BASE + obras);
+        if (existentes > 0 || riesgoTecnicoRepository.existsByNroRiesgo(NRO_RIESGO_BASE + 1)) {
+            if (existentes < obras) {
+                log.warn("Generador: los datos generados están incompletos ({}/{} obras) y no se pueden retomar; "
+                        + "para regenerarlos hay que partir de una base vacía", existentes, obras);
+            } else {
+                log.info("Generador: ya hay obras generadas, no se generan de nuevo");
+            }
+            return;
+        }
+        long inicio = System.nanoTime();
+        Catalogos catalogos = transactionTemplate.execute(status -> generarCatalogos(new Random(semilla)));
+        log.info("Generador: catalogos listos ({} localidades, {} planes, {} riesgos)",
+                catalogos.localidades().size(), catalogos.planes().size(), catalogos.riesgos().size());
+
+        int lotes = (obras + lote - 1) / lote;
+        AtomicLong generadas = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<?>> tareas = new ArrayList<>(lotes);
+            for (int n = 0; n < lotes; n++) {
+                int nroLote = n;
+                tareas.add(executor.submit(() -> {
+                    int cantidad = Math.min(lote, obras - nroLote * lote);
+                    transactionTemplate.executeWithoutResult(status -> generarLote(nroLote, cantidad, catalogos));
+                    long total = generadas.addAndGet(cantidad);
+                    if (total % (lote * 100L) < cantidad) {
+                        log.info("Generador: {}/{} obras", total, obras);
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al generar un lote de obras", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        log.info("Generador: {} obras en {}s ({} obras/s, {} hilos, semilla {})",
+                obras, String.format("%.1f", segundos), Math.round(obras / segundos), hilos, semilla);
+    }
+
+    private Catalogos generarCatalogos(Random random) {
+        List<Long> localidades = new ArrayList<>();
+        for (int d = 1; d <= departamentos; d++) {
+            Departamento departamento = new Departamento();
+            departamento.setNombreDepartamento("Departamento " + d);
+            entityManager.persist(departamento);
+            for (int l = 1; l <= localidadesPorDepartamento; l++) {
+                Localidad localidad = new Localidad();
+                localidad.setNombreLocalidad(l == 1 ? "Capital de " + departamento.getNombreDepartamento()
+                        : "Localidad " + d + "-" + l);
+                localidad.setDepartamento(departamento);
+                entityManager.persist(localidad);
+                localidades.add(localidad.getId());
+            }
+        }
+
+        List<Long> rubros = new ArrayList<>();
+        List<Long> planes = new ArrayList<>();
+        for (String nombreRubro : RUBROS) {
+            Rubro rubro = new Rubro(nombreRubro);
+            entityManager.persist(rubro);
+            rubros.add(rubro.getId());
+            for (int p = 1; p <= planesPorRubro; p++) {
+                PlanProyecto plan = new PlanProyecto();
+                plan.setNombrePlanProyecto("Plan " + nombreRubro + " " + p);
+                plan.setDescripcionPlanProyecto("Plan de " + nombreRubro.toLowerCase() + " numero " + p);
+                plan.setMesesEstudio(1 + random.nextInt(12));
+                plan.setInversionEstimada(monto(random));
+                plan.setTiempoEstimado(3 + random.nextInt(34));
+                plan.setPrioridad(Prioridad.values()[random.nextInt(Prioridad.values().length)]);
+                // Sólo los planes que se ejecutan reciben obras
+                plan.setSeEjecuta(random.nextInt(10) < 8);
+                plan.setRubro(rubro);
+                entityManager.persist(plan);
+                if (plan.getSeEjecuta()) {
+                    planes.add(plan.getId());
+                }
+            }
+        }
+
+        List<Long> riesgosIds = new ArrayList<>();
+        for (int r = 1; r <= riesgos; r++) {
+            RiesgoTecnico riesgo = new RiesgoTecnico();
+            riesgo.setNroRiesgo(NRO_RIESGO_BASE + r);
+            riesgo.setNaturalezaRiesgo(RIESGOS[random.nextInt(RIESGOS.length)]);
+            riesgo.setPropuestaSolucion("Propuesta " + r);
+            riesgo.setMedidasMitigacion("Medidas " + r);
+            riesgo.setAccionesEjecutadas(random.nextBoolean() ? "Ninguna" : "En curso");
+            entityManager.persist(riesgo);
+            riesgosIds.add(riesgo.getId());
+        }
+
+        List<Long> estados = new ArrayList<>();
+        for (String nombre : ESTADOS) {
+            EstadoObra estado = estadoObraRepository.findFirstByNombreEstadoObraIgnoreCaseAndFechaBajaIsNull(nombre)
+                    .orElseGet(() -> {
+                        EstadoObra nuevo = new EstadoObra(nombre);
+                        entityManager.persist(nuevo);
+                        return nuevo;
+                    });
+            estados.add(estado.getId());
+        }
+        return new Catalogos(localidades, rubros, planes, riesgosIds, estados);
+    }
+
+    private void generarLote(int nroLote, int cantidad, Catalogos c) {
+        Random random = new Random(semilla * 31 + nroLote);
+        for (int i = 0; i < cantidad; i++) {
+            long nro = NRO_OBRA_BASE + (long) nroLote * lote + i + 1;
+            Obra obra = new Obra();
+            obra.setNroObra(nro);
+            obra.setNombreObra(TIPOS_OBRA[random.nextInt(TIPOS_OBRA.length)] + " "
+                    + LUGARES[random.nextInt(LUGARES.length)] + " " + nro);
+            obra.setTiempoEjecucion(3 + random.nextInt(34));
+            LocalDate fechaInicio = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(365 * 11));
+            obra.setFechaInicioObra(fechaInicio);
+            obra.setAnioEjecucion(fechaInicio.getYear());
+            obra.setInversionFinal(monto(random));
+            // Sesgo hacia las primeras localidades (las capitales concentran más obras)
+            double u = random.nextDouble();
+            obra.setLocalidad(entityManager.getReference(Localidad.class,
+                    c.localidades().get((int) (u * u * c.localidades().size()))));
+            if (!c.planes().isEmpty() && random.nextInt(10) < 7) {
+                obra.setPlanProyecto(entityManager.getReference(PlanProyecto.class,
+                        c.planes().get(random.nextInt(c.planes().size()))));
+            }
+            // Historial: Planificacion -> Ejecucion -> Finalizada, hasta un paso al azar.
+            // La obra se completa antes del persist para que no haga falta un UPDATE.
+            int pasos = 1 + random.nextInt(ESTADOS.length);
+            LocalDateTime[] inicios = new LocalDateTime[pasos];
+            inicios[0] = fechaInicio.atStartOfDay();
+            for (int p = 1; p < pasos; p++) {
+                inicios[p] = inicios[p - 1].plusDays(30 + random.nextInt(300));
+            }
+            EstadoObra actual = entityManager.getReference(EstadoObra.class, c.estados().get(pasos - 1));
+            obra.setEstadoActual(actual);
+            obra.setFechaEstadoActual(inicios[pasos - 1]);
+            if (pasos == ESTADOS.length) {
+                obra.setFechaFinObra(inicios[pasos - 1].toLocalDate());
+            }
+            // Algunas bajas, para que los listados de activas filtren de verdad
+            if (random.nextInt(100) < 3) {
+                obra.setFechaBaja(inicios[pasos - 1].plusDays(1));
+            }
+            entityManager.persist(obra);
+
+            for (int p = 0; p < pasos; p++) {
+                ObraEstadoObra registro = new ObraEstadoObra();
+                registro.setObra(obra);
+                registro.setEstadoObra(entityManager.getReference(EstadoObra.class, c.estados().get(p)));
+                registro.setFechaHoraInicio(inicios[p]);
+                registro.setFechaHoraFin(p < pasos - 1 ? inicios[p + 1] : null);
+                entityManager.persist(registro);
+            }
+
+            // Riesgos y rubros distintos: posiciones consecutivas desde una al azar
+            int vinculos = Math.min(random.nextInt(4), c.riesgos().size());
+            int primerRiesgo = c.riesgos().isEmpty() ? 0 : random.nextInt(c.riesgos().size());
+            for (int r = 0; r < vinculos; r++) {
+                ObraRiesgo link = new ObraRiesgo();
+                link.setObra(obra);
+                link.setRiesgoTecnico(entityManager.getReference(RiesgoTecnico.class,
+                        c.riesgos().get((primerRiesgo + r) % c.riesgos().size())));
+                entityManager.persist(link);
+            }
+            int rubros = Math.min(1 + random.nextInt(2), c.rubros().size());
+            int primerRubro = random.nextInt(c.rubros().size());
+            for (int r = 0; r < rubros; r++) {
+                ObraRubro link = new ObraRubro();
+                link.setObra(obra);
+                link.setRubro(entityManager.getReference(Rubro.class, c.rubros().get((primerRubro + r) % c.rubros().size())));
+                entityManager.persist(link);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Entre 10 mil y 10 millones, con más obras chicas que grandes (log-uniforme)
+    private static BigDecimal monto(Random random) {
+        double valor = Math.pow(10, 4 + random.nextDouble() * 3);
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Catalogos(List<Long> localidades, List<Long> rubros, List<Long> planes,
+                             List<Long> riesgos, List<Long> estados) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.RiesgoTecnico;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Números de obra activos y números de riesgo en uso, en memoria, para
+ * responder las validaciones de unicidad sin ir a la base. Se cargan al
+ * iniciar (y periódicamente, como reconciliación) y se mantienen con los
+ * eventos post-commit de Hibernate sobre Obra y RiesgoTecnico.
+ * <p>
+ * Es una verificación rápida, no una garantía: dos altas concurrentes con el
+ * mismo número pueden pasar las dos; las restricciones únicas de la base
+ * (ver db/migration/V2__indices.sql) rechazan la segunda.
+ * Los riesgos cuentan aunque estén dados de baja, igual que existsByNroRiesgo.
+ */
+@Service
+public class IndiceNumeros implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ObraRepository obraRepository;
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    // Los conjuntos sólo se tocan con el lock tomado
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongHashSet nrosObra = new LongHashSet(1024);
+    private final LongHashSet nrosRiesgo = new LongHashSet(1024);
+    private volatile boolean listo;
+    private volatile boolean desincronizado;
+
+    public IndiceNumeros(ObraRepository obraRepository,
+                         RiesgoTecnicoRepository riesgoTecnicoRepository,
+                         EntityManagerFactory entityManagerFactory,
+                         TransactionTemplate transactionTemplate) {
+        this.obraRepository = obraRepository;
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /** true si hay una obra activa con ese número. */
+    public boolean existeNroObra(long nroObra) {
+        return contiene(nrosObra, nroObra);
+    }
+
+    /** true si algún riesgo (activo o dado de baja) usa ese número. */
+    public boolean existeNroRiesgo(long nroRiesgo) {
+        return contiene(nrosRiesgo, nroRiesgo);
+    }
+
+    private boolean contiene(LongHashSet conjunto, long valor) {
+        if (!listo || desincronizado) {
+            reconstruir();
+        }
+        lock.readLock().lock();
+        try {
+            return conjunto.contains(valor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recarga ambos conjuntos desde la base. Corre al arrancar, periódicamente
+     * y cuando un evento no trae el estado previo de la entidad.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @Scheduled(fixedDelayString = "${indice.numeros.reconciliacion:PT10M}",
+            initialDelayString = "${indice.numeros.reconciliacion:PT10M}")
+    public void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                cargar(nrosObra, obraRepository.findNroObraActivos());
+                cargar(nrosRiesgo, riesgoTecnicoRepository.findNrosRiesgo());
+            });
+            listo = true;
+            desincronizado = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void cargar(LongHashSet conjunto, List<Long> valores) {
+        conjunto.clear();
+        for (Long valor : valores) {
+            conjunto.add(valor);
+        }
+    }
+
+    // ---- eventos de Hibernate (después del commit) ----
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        aplicar(event.getEntity(), event.getPersister(), null, event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            desincronizado = true;
+            return;
+        }
+        aplicar(event.getEntity(), event.getPersister(), event.getOldState(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        aplicar(event.getEntity(), event.getPersister(), event.getDeletedState(), null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> clase = persister.getMappedClass();
+        return clase == Obra.class || clase == RiesgoTecnico.class;
+    }
+
+    private void aplicar(Object entity, EntityPersister persister, Object[] antes, Object[] despues) {
+        if (!listo) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (entity instanceof Obra) {
+                Long anterior = nroObraActivo(persister, antes);
+                Long nuevo = nroObraActivo(persister, despues);
+                if (anterior != null) {
+                    nrosObra.remove(anterior);
+                }
+                if (nuevo != null) {
+                    nrosObra.add(nuevo);
+                }
+            } else if (entity instanceof RiesgoTecnico) {
+                Long anterior = antes != null ? (Long) valor(persister, antes, "nroRiesgo") : null;
+                Long nuevo = despues != null ? (Long) valor(persister, despues, "nroRiesgo") : null;
+                if (anterior != null) {
+                    nrosRiesgo.remove(anterior);
+                }
+                if (nuevo != null) {
+                    nrosRiesgo.add(nuevo);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Long nroObraActivo(EntityPersister persister, Object[] estado) {
+        if (estado == null || valor(persister, estado, "fechaBaja") != null) {
+            return null;
+        }
+        return (Long) valor(persister, estado, "nroObra");
+    }
+
+    private static Object valor(EntityPersister persister, Object[] estado, String propiedad) {
+        int indice = Arrays.asList(persister.getPropertyNames()).indexOf(propiedad);
+        return indice >= 0 ? estado[indice] : null;
+    }
+}
@@ -0,0 +1,133 @@
+package com.AM.mvpAM.service;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de {@code long} sin boxing: direccionamiento abierto con sondeo
+ * lineal sobre un arreglo de potencia de dos, factor de carga 0.5 y borrado
+ * por corrimiento hacia atrás (sin marcas de borrado). No es thread-safe.
+ */
+final class LongHashSet {
+
+    // Marca de celda libre; el valor mismo se guarda aparte
+    private static final long LIBRE = 0L;
+
+    private long[] celdas;
+    private int mascara;
+    private int tamanio;
+    private boolean contieneCero;
+
+    LongHashSet(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(4, capacidadEsperada) * 2 - 1) << 1;
+        celdas = new long[capacidad];
+        mascara = capacidad - 1;
+    }
+
+    boolean contains(long valor) {
+        if (valor == LIBRE) {
+            return contieneCero;
+        }
+        long[] c = celdas;
+        int m = c.length - 1;
+        for (int i = indice(valor, m); ; i = (i + 1) & m) {
+            long actual = c[i];
+            if (actual == valor) {
+                return true;
+            }
+            if (actual == LIBRE) {
+                return false;
+            }
+        }
+    }
+
+    boolean add(long valor) {
+        if (valor == LIBRE) {
+            boolean nuevo = !contieneCero;
+            contieneCero = true;
+            return nuevo;
+        }
+        for (int i = indice(valor, mascara); ; i = (i + 1) & mascara) {
+            long actual = celdas[i];
+            if (actual == valor) {
+                return false;
+            }
+            if (actual == LIBRE) {
+                celdas[i] = valor;
+                if (++tamanio * 2 > celdas.length) {
+                    redimensionar(celdas.length * 2);
+                }
+                return true;
+            }
+        }
+    }
+
+    boolean remove(long valor) {
+        if (valor == LIBRE) {
+            boolean estaba = contieneCero;
+            contieneCero = false;
+            return estaba;
+        }
+        for (int i = indice(valor, mascara); ; i = (i + 1) & mascara) {
+            long actual = celdas[i];
+            if (actual == LIBRE) {
+                return false;
+            }
+            if (actual == valor) {
+                correrHaciaAtras(i);
+                tamanio--;
+                return true;
+            }
+        }
+    }
+
+    int size() {
+        return tamanio + (contieneCero ? 1 : 0);
+    }
+
+    void clear() {
+        Arrays.fill(celdas, LIBRE);
+        tamanio = 0;
+        contieneCero = false;
+    }
+
+    // Reubica los elementos que siguen al hueco para no cortar sus cadenas de sondeo
+    private void correrHaciaAtras(int hueco) {
+        int i = hueco;
+        while (true) {
+            i = (i + 1) & mascara;
+            long actual = celdas[i];
+            if (actual == LIBRE) {
+                break;
+            }
+            int ideal = indice(actual, mascara);
+            // Se mueve si su posición ideal no está en el tramo (hueco, i]
+            if (((i - ideal) & mascara) >= ((i - hueco) & mascara)) {
+                celdas[hueco] = actual;
+                hueco = i;
+            }
+        }
+        celdas[hueco] = LIBRE;
+    }
+
+    private void redimensionar(int capacidad) {
+        long[] anteriores = celdas;
+        celdas = new long[capacidad];
+        mascara = capacidad - 1;
+        for (long valor : anteriores) {
+            if (valor != LIBRE) {
+                int i = indice(valor, mascara);
+                while (celdas[i] != LIBRE) {
+                    i = (i + 1) & mascara;
+                }
+                celdas[i] = valor;
+            }
+        }
+    }
+
+    private static int indice(long valor, int mascara) {
+        // Hash multiplicativo (Fibonacci): reparte valores consecutivos por toda la tabla
+        long h = valor * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) h & mascara;
+    }
+}
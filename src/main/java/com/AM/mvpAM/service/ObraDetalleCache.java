@@ -0,0 +1,241 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.dto.ApiResponse;
+import com.AM.mvpAM.entities.Base;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.ObraEstadoObra;
+import com.AM.mvpAM.entities.ObraRiesgo;
+import com.AM.mvpAM.entities.ObraRubro;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Respuesta de GET /api/obras/{id} ya serializada a JSON, por obra.
+ * Cada entrada guarda la versión de la obra con la que se armó: cualquier
+ * escritura confirmada sobre la obra o sus hijos (historial de estados,
+ * riesgos, rubros) incrementa esa versión, y una escritura sobre otra
+ * entidad que se serializa dentro de la obra (localidad, plan, estado,
+ * riesgo...) incrementa la generación de toda la caché. Una entrada con
+ * versión o generación vieja no se sirve nunca.
+ * Desalojo LRU acotado por cantidad de entradas y por bytes.
+ */
+@Service
+public class ObraDetalleCache implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final ObraService obraService;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long maxBytes;
+    private final int maxEntradas;
+
+    private final Map<Long, Long> versiones = new ConcurrentHashMap<>();
+    private final AtomicLong generacion = new AtomicLong();
+    // Orden de acceso (LRU); protegido por synchronized (entradas)
+    private final LinkedHashMap<Long, Entrada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytesEnUso;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    public ObraDetalleCache(ObraService obraService,
+                            ObjectMapper objectMapper,
+                            EntityManagerFactory entityManagerFactory,
+                            @Value("${obras.detalle.cache.bytes:32MB}") DataSize maxBytes,
+                            @Value("${obras.detalle.cache.entradas:5000}") int maxEntradas) {
+        this.obraService = obraService;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+        this.maxBytes = maxBytes.toBytes();
+        this.maxEntradas = maxEntradas;
+    }
+
+    @PostConstruct
+    void registrarListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /** JSON de {@code ApiResponse<Obra>} para la obra activa; vacío si no existe. */
+    public Optional<byte[]> detalle(Long id) {
+        // Versión y generación se leen antes de consultar: si una escritura
+        // confirma mientras tanto, lo que se guarde ya nace vencido
+        long generacionLeida = generacion.get();
+        long versionLeida = versiones.getOrDefault(id, 0L);
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(id);
+            if (entrada != null && entrada.generacion() == generacionLeida && entrada.version() == versionLeida) {
+                aciertos.increment();
+                return Optional.of(entrada.json());
+            }
+        }
+        fallos.increment();
+        Optional<Obra> obra = obraService.buscar(id);
+        if (obra.isEmpty()) {
+            return Optional.empty();
+        }
+        byte[] json = serializar(new ApiResponse<>(true, obra.get()));
+        guardar(id, new Entrada(generacionLeida, versionLeida, json));
+        return Optional.of(json);
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    public double getRatioAciertos() {
+        long a = aciertos.sum();
+        long total = a + fallos.sum();
+        return total == 0 ? 0 : (double) a / total;
+    }
+
+    public long getBytesEnUso() {
+        synchronized (entradas) {
+            return bytesEnUso;
+        }
+    }
+
+    public int getEntradas() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    private byte[] serializar(ApiResponse<Obra> respuesta) {
+        try {
+            return objectMapper.writeValueAsBytes(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la obra", e);
+        }
+    }
+
+    private void guardar(Long id, Entrada entrada) {
+        if (entrada.json().length > maxBytes) {
+            return;
+        }
+        synchronized (entradas) {
+            Entrada anterior = entradas.put(id, entrada);
+            if (anterior != null) {
+                bytesEnUso -= anterior.json().length;
+            }
+            bytesEnUso += entrada.json().length;
+            Iterator<Entrada> lru = entradas.values().iterator();
+            while ((bytesEnUso > maxBytes || entradas.size() > maxEntradas) && lru.hasNext()) {
+                bytesEnUso -= lru.next().json().length;
+                lru.remove();
+                desalojos.increment();
+            }
+        }
+    }
+
+    private void invalidar(Long obraId) {
+        versiones.merge(obraId, 1L, Long::sum);
+        synchronized (entradas) {
+            Entrada anterior = entradas.remove(obraId);
+            if (anterior != null) {
+                bytesEnUso -= anterior.json().length;
+            }
+        }
+    }
+
+    private void invalidarTodo() {
+        generacion.incrementAndGet();
+        synchronized (entradas) {
+            entradas.clear();
+            bytesEnUso = 0;
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        registrarCambio(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        registrarCambio(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        registrarCambio(event.getEntity());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return Base.class.isAssignableFrom(persister.getMappedClass());
+    }
+
+    private void registrarCambio(Object entity) {
+        if (entity instanceof Obra obra) {
+            invalidar(obra.getId());
+        } else if (entity instanceof ObraEstadoObra oe) {
+            invalidarObra(oe.getObra());
+        } else if (entity instanceof ObraRiesgo or) {
+            invalidarObra(or.getObra());
+        } else if (entity instanceof ObraRubro orb) {
+            invalidarObra(orb.getObra());
+        } else if (entity instanceof Base) {
+            invalidarTodo();
+        }
+    }
+
+    private void invalidarObra(Obra obra) {
+        // getId() sobre un proxy no lo inicializa
+        if (obra != null && obra.getId() != null) {
+            invalidar(obra.getId());
+        } else {
+            invalidarTodo();
+        }
+    }
+
+    private record Entrada(long generacion, long version, byte[] json) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.dto.ObraListDTO;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exporta las obras activas fila a fila. Las filas se leen del cursor de la
+ * base en bloques de {@link #BLOQUE}: cada bloque se completa con estado y
+ * riesgos (ver {@link ObraService#completarListado}), se escribe y se descarta,
+ * de modo que la memoria usada no depende de la cantidad de obras.
+ */
+@Service
+public class ObraExportService {
+
+    static final int BLOQUE = 500;
+
+    private static final String CSV_ENCABEZADO = "id,nroObra,nombreObra,anioEjecucion,tiempoEjecucion," +
+            "fechaInicioObra,fechaFinObra,inversionFinal,localidad,departamento,planProyecto," +
+            "estadoActual,cantidadRiesgos";
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Formato parse(String valor) {
+            for (Formato f : values()) {
+                if (f.extension.equalsIgnoreCase(valor)) {
+                    return f;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final ObraRepository obraRepository;
+    private final ObraService obraService;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ObraExportService(ObraRepository obraRepository,
+                             ObraService obraService,
+                             ObjectMapper objectMapper) {
+        this.obraRepository = obraRepository;
+        this.obraService = obraService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportar(Formato formato, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (formato == Formato.CSV) {
+            writer.write(CSV_ENCABEZADO);
+            writer.write('\n');
+        }
+
+        try (Stream<ObraListDTO> filas = obraRepository.streamListadoActivas()) {
+            Iterator<ObraListDTO> it = filas.iterator();
+            List<ObraListDTO> bloque = new ArrayList<>(BLOQUE);
+            while (it.hasNext()) {
+                bloque.add(it.next());
+                if (bloque.size() == BLOQUE || !it.hasNext()) {
+                    obraService.completarListado(bloque);
+                    for (ObraListDTO obra : bloque) {
+                        if (formato == Formato.CSV) {
+                            escribirCsv(writer, obra);
+                        } else {
+                            writer.write(objectMapper.writeValueAsString(obra));
+                            writer.write('\n');
+                        }
+                    }
+                    bloque.clear();
+                    // Nada de lo leído debe quedar retenido en la sesión
+                    entityManager.clear();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void escribirCsv(Writer writer, ObraListDTO obra) throws IOException {
+        ObraListDTO.LocalidadResumen localidad = obra.getLocalidad();
+        ObraListDTO.DepartamentoResumen departamento = localidad != null ? localidad.getDepartamento() : null;
+
+        writer.write(String.valueOf(obra.getId()));
+        writer.write(',');
+        writer.write(csv(obra.getNroObra()));
+        writer.write(',');
+        writer.write(csv(obra.getNombreObra()));
+        writer.write(',');
+        writer.write(csv(obra.getAnioEjecucion()));
+        writer.write(',');
+        writer.write(csv(obra.getTiempoEjecucion()));
+        writer.write(',');
+        writer.write(csv(obra.getFechaInicioObra()));
+        writer.write(',');
+        writer.write(csv(obra.getFechaFinObra()));
+        writer.write(',');
+        writer.write(obra.getInversionFinal() != null ? obra.getInversionFinal().toPlainString() : "");
+        writer.write(',');
+        writer.write(csv(localidad != null ? localidad.getNombreLocalidad() : null));
+        writer.write(',');
+        writer.write(csv(departamento != null ? departamento.getNombreDepartamento() : null));
+        writer.write(',');
+        writer.write(csv(obra.getPlanProyecto() != null ? obra.getPlanProyecto().getNombrePlanProyecto() : null));
+        writer.write(',');
+        writer.write(csv(obra.getEstadoActual() != null ? obra.getEstadoActual().getNombreEstadoObra() : null));
+        writer.write(',');
+        writer.write(String.valueOf(obra.getCantidadRiesgos()));
+        writer.write('\n');
+    }
+
+    static String csv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0
+                || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+            return '"' + texto.replace("\"", "\"\"") + '"';
+        }
+        return texto;
+    }
+}
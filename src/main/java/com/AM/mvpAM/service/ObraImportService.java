@@ -0,0 +1,457 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.dto.ImportErrorDTO;
+import com.AM.mvpAM.dto.ImportResultDTO;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Localidad;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.ObraEstadoObra;
+import com.AM.mvpAM.entities.ObraRiesgo;
+import com.AM.mvpAM.entities.PlanProyecto;
+import com.AM.mvpAM.entities.RiesgoTecnico;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.repositories.PlanProyectoRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importación masiva de obras desde CSV, en etapas:
+ * <ol>
+ *     <li>parseo del stream línea a línea;</li>
+ *     <li>resolución de localidad, plan, riesgos y estado contra ids precargados;</li>
+ *     <li>validación con {@link ObraValidator} más existencia y unicidad de nroObra;</li>
+ *     <li>escritura en transacciones de N filas, en un hilo aparte para que el
+ *     parseo del lote siguiente se solape con los INSERT del anterior.</li>
+ * </ol>
+ * Las columnas se ubican por nombre de encabezado (separador ',' o ';'):
+ * nroObra, nombreObra, tiempoEjecucion, anioEjecucion, fechaInicioObra,
+ * fechaFinObra, inversionFinal, localidadId, planProyectoId,
+ * riesgoIds (separados por '|') y estado (nombre o id, por defecto Planificacion).
+ */
+@Service
+public class ObraImportService {
+
+    public static final int LOTE_POR_DEFECTO = 500;
+    private static final int LOTE_MAXIMO = 5000;
+    // Lotes parseados que pueden esperar escritura: acota la memoria del pipeline
+    private static final int LOTES_EN_VUELO = 2;
+
+    private static final List<String> COLUMNAS_REQUERIDAS = List.of(
+            "nroObra", "nombreObra", "tiempoEjecucion", "anioEjecucion",
+            "fechaInicioObra", "inversionFinal", "localidadId");
+    private static final DateTimeFormatter FECHA_DMY = DateTimeFormatter.ofPattern("d/M/yyyy");
+
+    private final ObraRepository obraRepository;
+    private final LocalidadRepository localidadRepository;
+    private final PlanProyectoRepository planProyectoRepository;
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final EstadoObraRepository estadoObraRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ObraImportService(ObraRepository obraRepository,
+                             LocalidadRepository localidadRepository,
+                             PlanProyectoRepository planProyectoRepository,
+                             RiesgoTecnicoRepository riesgoTecnicoRepository,
+                             EstadoObraRepository estadoObraRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.obraRepository = obraRepository;
+        this.localidadRepository = localidadRepository;
+        this.planProyectoRepository = planProyectoRepository;
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.estadoObraRepository = estadoObraRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Importa el CSV y devuelve el reporte por fila. Las filas inválidas no
+     * detienen la importación; si falla la escritura de un lote, todas sus
+     * filas se informan como rechazadas.
+     *
+     * @throws IllegalArgumentException si faltan columnas requeridas en el encabezado
+     */
+    public ImportResultDTO importar(InputStream csv, int tamanioLote) throws IOException {
+        long inicio = System.nanoTime();
+        int lote = Math.max(1, Math.min(tamanioLote, LOTE_MAXIMO));
+        ImportResultDTO resultado = new ImportResultDTO();
+        List<ImportErrorDTO> errores = resultado.getErrores();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String encabezado = reader.readLine();
+        if (encabezado == null) {
+            return resultado;
+        }
+        if (encabezado.startsWith("\uFEFF")) {
+            encabezado = encabezado.substring(1);
+        }
+        char separador = encabezado.indexOf(';') >= 0 && encabezado.indexOf(',') < 0 ? ';' : ',';
+        Map<String, Integer> columnas = indexarColumnas(parsearLinea(encabezado, separador));
+
+        Referencias refs = cargarReferencias();
+        ExecutorService escritor = Executors.newSingleThreadExecutor();
+        Deque<Future<List<ImportErrorDTO>>> pendientes = new ArrayDeque<>();
+        try {
+            List<FilaObra> actual = new ArrayList<>(lote);
+            String linea;
+            int nroLinea = 1;
+            while ((linea = reader.readLine()) != null) {
+                nroLinea++;
+                if (linea.isBlank()) {
+                    continue;
+                }
+                resultado.setTotalFilas(resultado.getTotalFilas() + 1);
+                List<String> campos = parsearLinea(linea, separador);
+                try {
+                    actual.add(convertir(nroLinea, campos, columnas, refs));
+                } catch (FilaInvalidaException e) {
+                    errores.add(new ImportErrorDTO(nroLinea, nroObraSiValido(campos, columnas), e.getMessage()));
+                }
+                if (actual.size() == lote) {
+                    enviar(escritor, pendientes, actual, errores, refs);
+                    actual = new ArrayList<>(lote);
+                }
+            }
+            if (!actual.isEmpty()) {
+                enviar(escritor, pendientes, actual, errores, refs);
+            }
+            while (!pendientes.isEmpty()) {
+                errores.addAll(esperar(pendientes.poll(), refs));
+            }
+        } finally {
+            escritor.shutdownNow();
+        }
+
+        errores.sort(Comparator.comparingInt(ImportErrorDTO::getFila));
+        resultado.setRechazadas(errores.size());
+        resultado.setImportadas(resultado.getTotalFilas() - errores.size());
+        resultado.setDuracionMs((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+
+    private void enviar(ExecutorService escritor, Deque<Future<List<ImportErrorDTO>>> pendientes,
+                        List<FilaObra> filas, List<ImportErrorDTO> errores, Referencias refs) {
+        while (pendientes.size() >= LOTES_EN_VUELO) {
+            errores.addAll(esperar(pendientes.poll(), refs));
+        }
+        pendientes.add(escritor.submit(() -> escribirLote(filas)));
+    }
+
+    /**
+     * Espera un lote enviado al escritor. Si el lote no se guardó, sus números
+     * de obra se liberan para que una fila posterior con el mismo número no se
+     * rechace como duplicada. Corre en el hilo que parsea, el único que usa
+     * refs.nroObras().
+     */
+    private List<ImportErrorDTO> esperar(Future<List<ImportErrorDTO>> pendiente, Referencias refs) {
+        try {
+            List<ImportErrorDTO> rechazadas = pendiente.get();
+            for (ImportErrorDTO rechazada : rechazadas) {
+                refs.nroObras().remove(rechazada.getNroObra());
+            }
+            return rechazadas;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al escribir un lote", e.getCause());
+        }
+    }
+
+    private List<ImportErrorDTO> escribirLote(List<FilaObra> filas) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime ahora = LocalDateTime.now();
+                Set<Long> planes = new HashSet<>();
+                for (FilaObra fila : filas) {
+                    Obra obra = fila.obra();
+                    obra.setLocalidad(entityManager.getReference(Localidad.class, fila.localidadId()));
+                    if (fila.planId() != null) {
+                        obra.setPlanProyecto(entityManager.getReference(PlanProyecto.class, fila.planId()));
+                        planes.add(fila.planId());
+                    }
+                    EstadoObra estado = fila.estadoId() != null
+                            ? entityManager.getReference(EstadoObra.class, fila.estadoId()) : null;
+                    obra.setEstadoActual(estado);
+                    obra.setFechaEstadoActual(estado != null ? ahora : null);
+                    entityManager.persist(obra);
+
+                    if (estado != null) {
+                        ObraEstadoObra registro = new ObraEstadoObra();
+                        registro.setObra(obra);
+                        registro.setEstadoObra(estado);
+                        registro.setFechaHoraInicio(ahora);
+                        entityManager.persist(registro);
+                    }
+
+                    for (Long riesgoId : fila.riesgoIds()) {
+                        ObraRiesgo link = new ObraRiesgo();
+                        link.setObra(obra);
+                        link.setRiesgoTecnico(entityManager.getReference(RiesgoTecnico.class, riesgoId));
+                        entityManager.persist(link);
+                    }
+                }
+                if (!planes.isEmpty()) {
+                    planProyectoRepository.findAllById(planes).forEach(plan -> plan.setSeEjecuta(true));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            return List.of();
+        } catch (RuntimeException e) {
+            String mensaje = "Error al guardar el lote: " + e.getMessage();
+            List<ImportErrorDTO> errores = new ArrayList<>(filas.size());
+            for (FilaObra fila : filas) {
+                errores.add(new ImportErrorDTO(fila.fila(), fila.obra().getNroObra(), mensaje));
+            }
+            return errores;
+        }
+    }
+
+    private Referencias cargarReferencias() {
+        Map<String, Long> estadosPorNombre = new HashMap<>();
+        Set<Long> estados = new HashSet<>();
+        for (EstadoObra estado : estadoObraRepository.findByFechaBajaIsNull()) {
+            estados.add(estado.getId());
+            if (estado.getNombreEstadoObra() != null) {
+                estadosPorNombre.putIfAbsent(estado.getNombreEstadoObra().trim().toLowerCase(), estado.getId());
+            }
+        }
+        return new Referencias(
+                new HashSet<>(localidadRepository.findIdsActivos()),
+                new HashSet<>(planProyectoRepository.findIdsActivos()),
+                new HashSet<>(riesgoTecnicoRepository.findIdsActivos()),
+                estados,
+                estadosPorNombre,
+                new HashSet<>(obraRepository.findNroObraActivos()),
+                estadosPorNombre.get("planificacion"));
+    }
+
+    private FilaObra convertir(int nroLinea, List<String> campos, Map<String, Integer> columnas,
+                               Referencias refs) throws FilaInvalidaException {
+        Obra obra = new Obra();
+        obra.setNroObra(parseLong(campos, columnas, "nroObra"));
+        obra.setNombreObra(valor(campos, columnas, "nombreObra"));
+        obra.setTiempoEjecucion(parseInt(campos, columnas, "tiempoEjecucion"));
+        obra.setAnioEjecucion(parseInt(campos, columnas, "anioEjecucion"));
+        obra.setFechaInicioObra(parseFecha(campos, columnas, "fechaInicioObra"));
+        obra.setFechaFinObra(parseFecha(campos, columnas, "fechaFinObra"));
+        obra.setInversionFinal(parseDecimal(campos, columnas, "inversionFinal"));
+        Long localidadId = parseLong(campos, columnas, "localidadId");
+        if (localidadId != null) {
+            Localidad localidad = new Localidad();
+            localidad.setId(localidadId);
+            obra.setLocalidad(localidad);
+        }
+
+        var error = ObraValidator.validar(obra);
+        if (error.isPresent()) {
+            throw new FilaInvalidaException(error.get());
+        }
+        if (refs.nroObras().contains(obra.getNroObra())) {
+            throw new FilaInvalidaException("Ya existe una obra activa con el número " + obra.getNroObra());
+        }
+        if (!refs.localidades().contains(localidadId)) {
+            throw new FilaInvalidaException("La localidad seleccionada no existe");
+        }
+
+        List<Long> riesgoIds = new ArrayList<>();
+        String riesgos = valor(campos, columnas, "riesgoIds");
+        if (riesgos != null) {
+            Set<Long> vistos = new HashSet<>();
+            for (String parte : riesgos.split("\\|")) {
+                if (parte.isBlank()) {
+                    continue;
+                }
+                Long riesgoId = toLong(parte.trim(), "riesgoIds");
+                if (!refs.riesgos().contains(riesgoId)) {
+                    throw new FilaInvalidaException("Riesgo técnico inválido o dado de baja");
+                }
+                if (vistos.add(riesgoId)) {
+                    riesgoIds.add(riesgoId);
+                }
+            }
+        }
+
+        Long planId = parseLong(campos, columnas, "planProyectoId");
+        if (planId != null && !refs.planes().contains(planId)) {
+            throw new FilaInvalidaException("El plan seleccionado no existe");
+        }
+
+        Long estadoId = refs.estadoInicial();
+        String estado = valor(campos, columnas, "estado");
+        if (estado != null) {
+            estadoId = estado.chars().allMatch(Character::isDigit)
+                    ? toLong(estado, "estado")
+                    : refs.estadosPorNombre().get(estado.toLowerCase());
+            if (estadoId == null || !refs.estados().contains(estadoId)) {
+                throw new FilaInvalidaException("El estado seleccionado no existe");
+            }
+        }
+
+        refs.nroObras().add(obra.getNroObra());
+        return new FilaObra(nroLinea, obra, localidadId, planId, estadoId, riesgoIds);
+    }
+
+    private static Map<String, Integer> indexarColumnas(List<String> encabezado) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) {
+            columnas.putIfAbsent(encabezado.get(i).trim().toLowerCase(), i);
+        }
+        List<String> faltantes = COLUMNAS_REQUERIDAS.stream()
+                .filter(c -> !columnas.containsKey(c.toLowerCase()))
+                .toList();
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas requeridas en el encabezado: " + faltantes);
+        }
+        return columnas;
+    }
+
+    /**
+     * Separa una línea CSV respetando comillas dobles ("" escapa una comilla).
+     * No se admiten saltos de línea dentro de un campo.
+     */
+    static List<String> parsearLinea(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    private static String valor(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna.toLowerCase());
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Long nroObraSiValido(List<String> campos, Map<String, Integer> columnas) {
+        try {
+            return parseLong(campos, columnas, "nroObra");
+        } catch (FilaInvalidaException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(List<String> campos, Map<String, Integer> columnas, String columna)
+            throws FilaInvalidaException {
+        String valor = valor(campos, columnas, columna);
+        return valor == null ? null : toLong(valor, columna);
+    }
+
+    private static Long toLong(String valor, String columna) throws FilaInvalidaException {
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new FilaInvalidaException("Valor inválido para " + columna + ": " + valor);
+        }
+    }
+
+    private static Integer parseInt(List<String> campos, Map<String, Integer> columnas, String columna)
+            throws FilaInvalidaException {
+        String valor = valor(campos, columnas, columna);
+        try {
+            return valor == null ? null : Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new FilaInvalidaException("Valor inválido para " + columna + ": " + valor);
+        }
+    }
+
+    private static BigDecimal parseDecimal(List<String> campos, Map<String, Integer> columnas, String columna)
+            throws FilaInvalidaException {
+        String valor = valor(campos, columnas, columna);
+        try {
+            return valor == null ? null : new BigDecimal(valor);
+        } catch (NumberFormatException e) {
+            throw new FilaInvalidaException("Valor inválido para " + columna + ": " + valor);
+        }
+    }
+
+    // Acepta ISO (2024-03-01) y el formato habitual de planillas (1/3/2024)
+    private static LocalDate parseFecha(List<String> campos, Map<String, Integer> columnas, String columna)
+            throws FilaInvalidaException {
+        String valor = valor(campos, columnas, columna);
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return valor.indexOf('/') >= 0 ? LocalDate.parse(valor, FECHA_DMY) : LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new FilaInvalidaException("Valor inválido para " + columna + ": " + valor);
+        }
+    }
+
+    private record Referencias(Set<Long> localidades,
+                               Set<Long> planes,
+                               Set<Long> riesgos,
+                               Set<Long> estados,
+                               Map<String, Long> estadosPorNombre,
+                               Set<Long> nroObras,
+                               Long estadoInicial) {
+    }
+
+    private record FilaObra(int fila, Obra obra, Long localidadId, Long planId,
+                            Long estadoId, List<Long> riesgoIds) {
+    }
+
+    private static class FilaInvalidaException extends Exception {
+        FilaInvalidaException(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.AM.mvpAM.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Contadores de negocio de obras, expuestos en /actuator/prometheus:
+ * <ul>
+ *   <li>{@code obras.altas} por origen (api o importacion);</li>
+ *   <li>{@code obras.estado.transiciones} por estado destino;</li>
+ *   <li>{@code obras.rechazos} por operación (alta, modificacion, estado,
+ *       importacion): pedidos que no pasan las validaciones.</li>
+ * </ul>
+ * Se cuentan en el controller, una vez confirmada la transacción.
+ */
+@Component
+public class ObraMetricas {
+
+    private final MeterRegistry registry;
+    private final Counter altasApi;
+    private final Counter altasImportacion;
+
+    public ObraMetricas(MeterRegistry registry) {
+        this.registry = registry;
+        this.altasApi = Counter.builder("obras.altas").tag("origen", "api").register(registry);
+        this.altasImportacion = Counter.builder("obras.altas").tag("origen", "importacion").register(registry);
+    }
+
+    public void alta() {
+        altasApi.increment();
+    }
+
+    public void importadas(int importadas, int rechazadas) {
+        altasImportacion.increment(importadas);
+        if (rechazadas > 0) {
+            rechazo("importacion", rechazadas);
+        }
+    }
+
+    public void transicion(String estado) {
+        // Los estados son un catálogo chico: el tag no dispara la cardinalidad
+        registry.counter("obras.estado.transiciones", "estado", estado.toLowerCase(Locale.ROOT)).increment();
+    }
+
+    public void rechazo(String operacion) {
+        rechazo(operacion, 1);
+    }
+
+    private void rechazo(String operacion, int cantidad) {
+        registry.counter("obras.rechazos", "operacion", operacion).increment(cantidad);
+    }
+}
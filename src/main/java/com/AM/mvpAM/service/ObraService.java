@@ -0,0 +1,511 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.dto.CantidadPorObraDTO;
+import com.AM.mvpAM.dto.EstadoActualDTO;
+import com.AM.mvpAM.dto.ObraFiltro;
+import com.AM.mvpAM.dto.ObraListDTO;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.Localidad;
+import com.AM.mvpAM.entities.ObraEstadoObra;
+import com.AM.mvpAM.entities.ObraRiesgo;
+import com.AM.mvpAM.entities.PlanProyecto;
+import com.AM.mvpAM.entities.RiesgoTecnico;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.repositories.ObraEstadoObraRepository;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.repositories.ObraRiesgoRepository;
+import com.AM.mvpAM.repositories.ObraSpecifications;
+import com.AM.mvpAM.repositories.PlanProyectoRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lecturas, altas/modificaciones y transiciones de estado de obras.
+ * Cada página del listado se resuelve con un número fijo de consultas: la
+ * proyección (más su count) y los conteos de riesgos de los ids de la página,
+ * sin importar el tamaño de página. Lo mismo vale para crear y actualizar:
+ * las referencias se cargan en lote y todo se escribe en un único flush,
+ * sin importar cuántos riesgos tenga la obra.
+ * <p>
+ * Con open-in-view deshabilitado la sesión termina con la transacción: todo
+ * lo que devuelve este servicio sale con el grafo que se va a serializar ya
+ * cargado. Las lecturas son readOnly, con lo que Spring pone la sesión en
+ * FlushMode.MANUAL y no hay dirty checking.
+ */
+@Service
+public class ObraService {
+
+    private static final Logger log = LoggerFactory.getLogger(ObraService.class);
+
+    private static final int LOTE_BACKFILL = 500;
+
+    private final ObraRepository obraRepository;
+    private final ObraEstadoObraRepository obraEstadoObraRepository;
+    private final ObraRiesgoRepository obraRiesgoRepository;
+    private final EstadoObraRepository estadoObraRepository;
+    private final LocalidadRepository localidadRepository;
+    private final PlanProyectoRepository planProyectoRepository;
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final IndiceNumeros indiceNumeros;
+    private final TransactionTemplate transactionTemplate;
+    private final int intentosCambioEstado;
+    private final Duration esperaBaseCambioEstado;
+    private final LongAdder reintentosCambioEstado = new LongAdder();
+
+    public ObraService(ObraRepository obraRepository,
+                       ObraEstadoObraRepository obraEstadoObraRepository,
+                       ObraRiesgoRepository obraRiesgoRepository,
+                       EstadoObraRepository estadoObraRepository,
+                       LocalidadRepository localidadRepository,
+                       PlanProyectoRepository planProyectoRepository,
+                       RiesgoTecnicoRepository riesgoTecnicoRepository,
+                       IndiceNumeros indiceNumeros,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${obras.estado.intentos:5}") int intentosCambioEstado,
+                       @Value("${obras.estado.espera-base:PT0.01S}") Duration esperaBaseCambioEstado) {
+        this.obraRepository = obraRepository;
+        this.obraEstadoObraRepository = obraEstadoObraRepository;
+        this.obraRiesgoRepository = obraRiesgoRepository;
+        this.estadoObraRepository = estadoObraRepository;
+        this.localidadRepository = localidadRepository;
+        this.planProyectoRepository = planProyectoRepository;
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.indiceNumeros = indiceNumeros;
+        this.transactionTemplate = transactionTemplate;
+        this.intentosCambioEstado = Math.max(1, intentosCambioEstado);
+        this.esperaBaseCambioEstado = esperaBaseCambioEstado;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ObraListDTO> listarActivas(Pageable pageable) {
+        Page<ObraListDTO> page = obraRepository.findListadoActivas(pageable);
+        completarListado(page.getContent());
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ObraListDTO> listarTodas(Pageable pageable) {
+        Page<ObraListDTO> page = obraRepository.findListadoTodas(pageable);
+        completarListado(page.getContent());
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<ObraListDTO> listarActivasAfter(Long afterId, int limit) {
+        Slice<ObraListDTO> slice = obraRepository.findListadoActivasAfter(afterId, PageRequest.of(0, limit));
+        completarListado(slice.getContent());
+        return slice;
+    }
+
+    /**
+     * Búsqueda con filtros combinables ({@link ObraSpecifications}): una
+     * consulta por la página de ids (más el count si hace falta), otra por la
+     * proyección de esos ids y la de conteo de riesgos. IllegalArgumentException
+     * si el orden pedido no es válido.
+     */
+    @Transactional(readOnly = true)
+    public Page<ObraListDTO> buscarPorFiltro(ObraFiltro filtro, Pageable pageable) {
+        Page<Long> ids = obraRepository.buscarIds(ObraSpecifications.deFiltro(filtro), pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, ObraListDTO> porId = new HashMap<>();
+        for (ObraListDTO obra : obraRepository.findListadoByIdIn(ids.getContent())) {
+            porId.put(obra.getId(), obra);
+        }
+        List<ObraListDTO> contenido = ids.getContent().stream().map(porId::get).toList();
+        completarListado(contenido);
+        return new PageImpl<>(contenido, pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Completa la cantidad de riesgos de las obras del listado con una
+     * consulta por lote de ids.
+     */
+    void completarListado(List<ObraListDTO> obras) {
+        if (obras.isEmpty()) {
+            return;
+        }
+        List<Long> ids = obras.stream().map(ObraListDTO::getId).toList();
+
+        Map<Long, Long> riesgos = new HashMap<>();
+        for (CantidadPorObraDTO conteo : obraRiesgoRepository.countRiesgosByObraIds(ids)) {
+            riesgos.put(conteo.getObraId(), conteo.getCantidad());
+        }
+
+        for (ObraListDTO obra : obras) {
+            obra.setCantidadRiesgos(riesgos.getOrDefault(obra.getId(), 0L));
+        }
+    }
+
+    /**
+     * Detalle de una obra con referencias, historial de estados, riesgos y
+     * rubros: cuatro consultas, sin cargas lazy al serializar.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Obra> buscar(Long id) {
+        Optional<Obra> obra = obraRepository.findConReferenciasByIdAndFechaBajaIsNull(id);
+        obra.ifPresent(o -> {
+            obraRepository.findConHistorialById(id);
+            obraRepository.findConRiesgosById(id);
+            obraRepository.findConRubrosById(id);
+        });
+        return obra;
+    }
+
+    /** true si hay una obra activa con ese número; se responde desde {@link IndiceNumeros}. */
+    public boolean existeNumero(Long nroObra) {
+        return nroObra != null && indiceNumeros.existeNroObra(nroObra);
+    }
+
+    public static boolean estaFinalizada(Obra obra) {
+        return obra.getEstadoActual() != null
+                && "finalizada".equalsIgnoreCase(obra.getEstadoActual().getNombreEstadoObra());
+    }
+
+    /**
+     * Cierra el estado abierto de la obra y registra el nuevo. En la misma
+     * transacción actualiza la copia desnormalizada (estadoActual y
+     * fechaEstadoActual), de modo que nunca difiere del historial.
+     */
+    @Transactional
+    public ObraEstadoObra registrarEstado(Obra obra, EstadoObra estado) {
+        LocalDateTime ahora = LocalDateTime.now();
+        obraEstadoObraRepository.cerrarEstadosAbiertos(obra.getId(), ahora);
+
+        ObraEstadoObra registro = new ObraEstadoObra();
+        registro.setObra(obra);
+        registro.setEstadoObra(estado);
+        registro.setFechaHoraInicio(ahora);
+        obraEstadoObraRepository.save(registro);
+
+        obra.setEstadoActual(estado);
+        obra.setFechaEstadoActual(ahora);
+        obraRepository.save(obra);
+        return registro;
+    }
+
+    /**
+     * Cambio de estado de una obra activa. Vacío si la obra o el estado no
+     * existen; IllegalArgumentException si la obra ya está finalizada.
+     * <p>
+     * Dos transiciones concurrentes sobre la misma obra chocan en la versión
+     * de la obra (@Version): la segunda se deshace completa, incluido el
+     * cierre del estado abierto, y se reintenta en una transacción nueva tras
+     * una espera aleatoria con tope exponencial. Agotados los intentos se
+     * propaga la ConcurrencyFailureException.
+     */
+    public Optional<ObraEstadoObra> cambiarEstado(Long obraId, Long estadoId) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> cambiarEstadoEnTransaccion(obraId, estadoId));
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= intentosCambioEstado) {
+                    throw e;
+                }
+                reintentosCambioEstado.increment();
+                esperarAntesDeReintentar(intento, e);
+            }
+        }
+    }
+
+    /** Transiciones de estado que debieron repetirse por conflicto de concurrencia. */
+    public long getReintentosCambioEstado() {
+        return reintentosCambioEstado.sum();
+    }
+
+    private void esperarAntesDeReintentar(int intento, ConcurrencyFailureException conflicto) {
+        // Jitter completo: espera uniforme entre 0 y base * 2^(intento-1)
+        long tope = esperaBaseCambioEstado.toNanos() << Math.min(intento - 1, 10);
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflicto;
+        }
+    }
+
+    private Optional<ObraEstadoObra> cambiarEstadoEnTransaccion(Long obraId, Long estadoId) {
+        Optional<Obra> obra = obraRepository.findByIdAndFechaBajaIsNull(obraId);
+        Optional<EstadoObra> estado = estadoObraRepository.findActivoById(estadoId);
+        if (obra.isEmpty() || estado.isEmpty()) {
+            return Optional.empty();
+        }
+        if (estaFinalizada(obra.get())) {
+            throw new IllegalArgumentException("La obra está finalizada");
+        }
+        return Optional.of(registrarEstado(obra.get(), estado.get()));
+    }
+
+    /**
+     * Baja lógica. Si el plan de la obra queda sin obras activas deja de
+     * estar en ejecución. Devuelve false si la obra no existe.
+     */
+    @Transactional
+    public boolean darDeBaja(Long id) {
+        Optional<Obra> obraOpt = obraRepository.findByIdAndFechaBajaIsNull(id);
+        if (obraOpt.isEmpty()) {
+            return false;
+        }
+        Obra obra = obraOpt.get();
+        obra.setFechaBaja(LocalDateTime.now());
+        PlanProyecto plan = obra.getPlanProyecto();
+        // El count dispara el flush de la baja, así que ya no cuenta esta obra
+        if (plan != null && obraRepository.countByPlanProyectoIdAndFechaBajaIsNull(plan.getId()) == 0) {
+            plan.setSeEjecuta(false);
+        }
+        return true;
+    }
+
+    /**
+     * Alta de obra en una sola transacción: valida y carga localidad, plan y
+     * riesgos (estos con un único findAllById), y persiste la obra, su estado
+     * inicial "Planificacion" y los vínculos con riesgos en un solo flush. Se
+     * devuelve el grafo armado en memoria, sin volver a leerlo.
+     * Los errores de validación se informan con IllegalArgumentException.
+     */
+    @Transactional
+    public Obra crear(Obra obra) {
+        ObraValidator.validar(obra).ifPresent(error -> {
+            throw new IllegalArgumentException(error);
+        });
+        if (indiceNumeros.existeNroObra(obra.getNroObra())) {
+            throw new IllegalArgumentException("Ya existe una obra activa con el número " + obra.getNroObra());
+        }
+        Localidad localidad = localidadRepository.findActivoById(obra.getLocalidad().getId())
+                .orElseThrow(() -> new IllegalArgumentException("La localidad seleccionada no existe"));
+        PlanProyecto plan = null;
+        if (obra.getPlanProyecto() != null && obra.getPlanProyecto().getId() != null) {
+            plan = planProyectoRepository.findActivoById(obra.getPlanProyecto().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("El plan seleccionado no existe"));
+        }
+        Map<Long, RiesgoTecnico> riesgos = cargarRiesgos(idsRiesgo(obra.getObraRiesgos()));
+
+        // Las colecciones que llegan en el JSON no se persisten tal cual
+        obra.setLocalidad(localidad);
+        obra.setPlanProyecto(plan);
+        obra.setObraEstadoObras(new ArrayList<>());
+        obra.setObraRiesgos(new ArrayList<>());
+        obra.setObraRubros(new ArrayList<>());
+        if (plan != null) {
+            plan.setSeEjecuta(true);
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        estadoObraRepository.findFirstByNombreEstadoObraIgnoreCaseAndFechaBajaIsNull("Planificacion")
+                .ifPresent(estado -> {
+                    ObraEstadoObra registro = new ObraEstadoObra();
+                    registro.setObra(obra);
+                    registro.setEstadoObra(estado);
+                    registro.setFechaHoraInicio(ahora);
+                    obra.getObraEstadoObras().add(registro);
+                    obra.setEstadoActual(estado);
+                    obra.setFechaEstadoActual(ahora);
+                });
+        for (RiesgoTecnico riesgo : riesgos.values()) {
+            obra.getObraRiesgos().add(vincular(obra, riesgo));
+        }
+
+        // Cascade ALL: obra, estado inicial y vínculos salen en el mismo flush
+        obraRepository.save(obra);
+        inicializarParaRespuesta(obra);
+        return obra;
+    }
+
+    /**
+     * Modificación de obra en una sola transacción, con la misma carga en lote
+     * de referencias que {@link #crear}. Si se envían riesgos, los vínculos
+     * se sincronizan: se quitan los que faltan y se agregan los nuevos.
+     * Devuelve vacío si la obra no existe o está dada de baja.
+     */
+    @Transactional
+    public Optional<Obra> actualizar(Long id, Obra datos) {
+        Optional<Obra> existente = obraRepository.findByIdAndFechaBajaIsNull(id);
+        if (existente.isEmpty()) {
+            return existente;
+        }
+        Obra o = existente.get();
+        if (estaFinalizada(o)) {
+            throw new IllegalArgumentException("La obra está finalizada y no puede modificarse");
+        }
+        if (datos.getLocalidad() == null || datos.getLocalidad().getId() == null) {
+            throw new IllegalArgumentException("La localidad es requerida");
+        }
+        Localidad localidad = localidadRepository.findActivoById(datos.getLocalidad().getId())
+                .orElseThrow(() -> new IllegalArgumentException("La localidad seleccionada no existe"));
+        PlanProyecto plan = null;
+        if (datos.getPlanProyecto() != null && datos.getPlanProyecto().getId() != null) {
+            plan = planProyectoRepository.findActivoById(datos.getPlanProyecto().getId())
+                    .orElseThrow(() -> new IllegalArgumentException("El plan seleccionado no existe"));
+        }
+        if (datos.getNroObra() != null && !datos.getNroObra().equals(o.getNroObra())
+                && indiceNumeros.existeNroObra(datos.getNroObra())) {
+            throw new IllegalArgumentException("Ya existe una obra activa con el número " + datos.getNroObra());
+        }
+        Map<Long, RiesgoTecnico> riesgos = datos.getObraRiesgos() != null
+                ? cargarRiesgos(idsRiesgo(datos.getObraRiesgos()))
+                : null;
+
+        o.setNroObra(datos.getNroObra());
+        o.setNombreObra(datos.getNombreObra());
+        o.setTiempoEjecucion(datos.getTiempoEjecucion());
+        o.setAnioEjecucion(datos.getAnioEjecucion());
+        o.setFechaInicioObra(datos.getFechaInicioObra());
+        o.setFechaFinObra(datos.getFechaFinObra());
+        o.setInversionFinal(datos.getInversionFinal());
+        o.setLocalidad(localidad);
+
+        PlanProyecto anterior = o.getPlanProyecto();
+        o.setPlanProyecto(plan);
+        if (plan != null) {
+            plan.setSeEjecuta(true);
+        }
+        if (anterior != null && anterior != plan) {
+            // El count dispara el flush de la obra, así que ya no la cuenta
+            if (obraRepository.countByPlanProyectoIdAndFechaBajaIsNull(anterior.getId()) == 0) {
+                anterior.setSeEjecuta(false);
+            }
+        }
+
+        if (riesgos != null) {
+            Iterator<ObraRiesgo> it = o.getObraRiesgos().iterator();
+            while (it.hasNext()) {
+                Long riesgoId = it.next().getRiesgoTecnico().getId();
+                // orphanRemoval borra el vínculo; lo que queda en el mapa es lo que falta agregar
+                if (riesgos.remove(riesgoId) == null) {
+                    it.remove();
+                }
+            }
+            for (RiesgoTecnico riesgo : riesgos.values()) {
+                o.getObraRiesgos().add(vincular(o, riesgo));
+            }
+        }
+        inicializarParaRespuesta(o);
+        return Optional.of(o);
+    }
+
+    private static Set<Long> idsRiesgo(List<ObraRiesgo> vinculos) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (vinculos != null) {
+            for (ObraRiesgo vinculo : vinculos) {
+                if (vinculo.getRiesgoTecnico() != null && vinculo.getRiesgoTecnico().getId() != null) {
+                    ids.add(vinculo.getRiesgoTecnico().getId());
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Una sola consulta para todos los riesgos; cualquier id ausente o dado de baja invalida el pedido
+    private Map<Long, RiesgoTecnico> cargarRiesgos(Set<Long> ids) {
+        Map<Long, RiesgoTecnico> riesgos = new LinkedHashMap<>();
+        if (ids.isEmpty()) {
+            return riesgos;
+        }
+        Map<Long, RiesgoTecnico> porId = new HashMap<>();
+        for (RiesgoTecnico riesgo : riesgoTecnicoRepository.findAllById(ids)) {
+            porId.put(riesgo.getId(), riesgo);
+        }
+        for (Long id : ids) {
+            RiesgoTecnico riesgo = porId.get(id);
+            if (riesgo == null || riesgo.getFechaBaja() != null) {
+                throw new IllegalArgumentException("Riesgo técnico inválido o dado de baja");
+            }
+            riesgos.put(id, riesgo);
+        }
+        return riesgos;
+    }
+
+    // Lo que Jackson recorre de la obra; los proxies se cargan en lote (default_batch_fetch_size)
+    private static void inicializarParaRespuesta(Obra obra) {
+        if (obra.getLocalidad() != null) {
+            Hibernate.initialize(obra.getLocalidad().getDepartamento());
+        }
+        if (obra.getPlanProyecto() != null) {
+            Hibernate.initialize(obra.getPlanProyecto().getRubro());
+        }
+        Hibernate.initialize(obra.getEstadoActual());
+        obra.getObraEstadoObras().forEach(e -> Hibernate.initialize(e.getEstadoObra()));
+        obra.getObraRiesgos().forEach(r -> Hibernate.initialize(r.getRiesgoTecnico()));
+        obra.getObraRubros().forEach(r -> Hibernate.initialize(r.getRubro()));
+    }
+
+    private static ObraRiesgo vincular(Obra obra, RiesgoTecnico riesgo) {
+        ObraRiesgo vinculo = new ObraRiesgo();
+        vinculo.setObra(obra);
+        vinculo.setRiesgoTecnico(riesgo);
+        return vinculo;
+    }
+
+    /**
+     * Completa estadoActual en las obras que no lo tienen (datos anteriores a
+     * la columna o cargados sin pasar por registrarEstado), tomando el estado
+     * abierto más reciente de su historial. Cada lote va en su propia
+     * transacción, así el contexto de persistencia no acumula toda la tabla.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillEstadoActual() {
+        List<Long> ids = obraRepository.findIdsSinEstadoActual();
+        int actualizadas = 0;
+        for (int desde = 0; desde < ids.size(); desde += LOTE_BACKFILL) {
+            List<Long> lote = ids.subList(desde, Math.min(desde + LOTE_BACKFILL, ids.size()));
+            actualizadas += transactionTemplate.execute(status -> completarEstadoActual(lote));
+        }
+        if (actualizadas > 0) {
+            log.info("Estado actual completado en {} obras", actualizadas);
+        }
+    }
+
+    private int completarEstadoActual(List<Long> lote) {
+        // Vienen ordenados por fecha de inicio: el último abierto de cada obra es el actual
+        Map<Long, EstadoActualDTO> estados = new HashMap<>();
+        for (EstadoActualDTO estado : obraEstadoObraRepository.findEstadosAbiertosByObraIds(lote)) {
+            estados.put(estado.getObraId(), estado);
+        }
+        if (estados.isEmpty()) {
+            return 0;
+        }
+        int actualizadas = 0;
+        for (Obra obra : obraRepository.findAllById(estados.keySet())) {
+            EstadoActualDTO estado = estados.get(obra.getId());
+            obra.setEstadoActual(estadoObraRepository.getReferenceById(estado.getEstadoObraId()));
+            obra.setFechaEstadoActual(estado.getFechaHoraInicio());
+            actualizadas++;
+        }
+        return actualizadas;
+    }
+}
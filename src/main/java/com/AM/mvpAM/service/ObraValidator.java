@@ -0,0 +1,48 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.Obra;
+
+import java.util.Optional;
+
+/**
+ * Reglas de validación de los datos propios de una obra. Las comparten el
+ * alta individual (ObraController.create) y la importación masiva, así los
+ * mensajes de error son los mismos en ambos caminos.
+ */
+public final class ObraValidator {
+
+    private ObraValidator() {
+    }
+
+    public static Optional<String> validar(Obra obra) {
+        if (obra.getNroObra() == null) {
+            return Optional.of("El número de obra es requerido");
+        }
+
+        if (obra.getNombreObra() == null || obra.getNombreObra().trim().isEmpty()) {
+            return Optional.of("El nombre de la obra es requerido");
+        }
+
+        if (obra.getTiempoEjecucion() == null || obra.getTiempoEjecucion() <= 0) {
+            return Optional.of("El tiempo de ejecución debe ser mayor a 0");
+        }
+
+        if (obra.getAnioEjecucion() == null || obra.getAnioEjecucion() < 2000) {
+            return Optional.of("El año de ejecución debe ser válido");
+        }
+
+        if (obra.getLocalidad() == null || obra.getLocalidad().getId() == null) {
+            return Optional.of("La localidad es requerida");
+        }
+
+        if (obra.getInversionFinal() == null || obra.getInversionFinal().doubleValue() <= 0) {
+            return Optional.of("La inversión final debe ser mayor a 0");
+        }
+
+        if (obra.getFechaInicioObra() == null) {
+            return Optional.of("La fecha de inicio es requerida");
+        }
+
+        return Optional.empty();
+    }
+}
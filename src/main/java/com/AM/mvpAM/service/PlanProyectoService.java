@@ -0,0 +1,109 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.PlanProyecto;
+import com.AM.mvpAM.entities.Rubro;
+import com.AM.mvpAM.repositories.ObraRepository;
+import com.AM.mvpAM.repositories.PlanProyectoRepository;
+import com.AM.mvpAM.repositories.RubroRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Lecturas y ABM de planes de proyecto. Las lecturas son readOnly (sesión en
+ * FlushMode.MANUAL) y traen el rubro en la misma consulta, que es lo único
+ * lazy que se serializa del plan. Los errores de validación se informan con
+ * IllegalArgumentException.
+ */
+@Service
+public class PlanProyectoService {
+
+    private final PlanProyectoRepository planProyectoRepository;
+    private final ObraRepository obraRepository;
+    private final RubroRepository rubroRepository;
+
+    public PlanProyectoService(PlanProyectoRepository planProyectoRepository,
+                               ObraRepository obraRepository,
+                               RubroRepository rubroRepository) {
+        this.planProyectoRepository = planProyectoRepository;
+        this.obraRepository = obraRepository;
+        this.rubroRepository = rubroRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PlanProyecto> listar(Pageable pageable) {
+        return planProyectoRepository.findAll(pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<PlanProyecto> listarAfter(Long afterId, int limit) {
+        return planProyectoRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PlanProyecto> buscar(Long id) {
+        return planProyectoRepository.findConRubroByIdAndFechaBajaIsNull(id);
+    }
+
+    @Transactional
+    public PlanProyecto crear(PlanProyecto plan) {
+        plan.setRubro(rubroActivo(plan.getRubro()));
+        plan.setSeEjecuta(false);
+        return planProyectoRepository.save(plan);
+    }
+
+    @Transactional
+    public Optional<PlanProyecto> actualizar(Long id, PlanProyecto datos) {
+        Optional<PlanProyecto> existente = planProyectoRepository.findConRubroByIdAndFechaBajaIsNull(id);
+        if (existente.isEmpty()) {
+            return existente;
+        }
+        PlanProyecto p = existente.get();
+        if (Boolean.TRUE.equals(p.getSeEjecuta())) {
+            throw new IllegalArgumentException("El plan está en ejecución y no puede modificarse");
+        }
+        Rubro rubro = rubroActivo(datos.getRubro());
+
+        p.setNombrePlanProyecto(datos.getNombrePlanProyecto());
+        p.setDescripcionPlanProyecto(datos.getDescripcionPlanProyecto());
+        p.setMesesEstudio(datos.getMesesEstudio());
+        p.setInversionEstimada(datos.getInversionEstimada());
+        p.setTiempoEstimado(datos.getTiempoEstimado());
+        p.setPrioridad(datos.getPrioridad());
+        p.setRubro(rubro);
+        return Optional.of(p);
+    }
+
+    /** Baja lógica; false si el plan no existe. */
+    @Transactional
+    public boolean darDeBaja(Long id) {
+        Optional<PlanProyecto> planOpt = planProyectoRepository.findById(id);
+        if (planOpt.isEmpty()) {
+            return false;
+        }
+        PlanProyecto plan = planOpt.get();
+        if (plan.getFechaBaja() != null) {
+            throw new IllegalArgumentException("El plan ya está dado de baja");
+        }
+        if (obraRepository.countByPlanProyectoIdAndFechaBajaIsNull(plan.getId()) > 0) {
+            throw new IllegalArgumentException("El plan está asociado a una obra activa");
+        }
+        plan.setFechaBaja(LocalDateTime.now());
+        plan.setSeEjecuta(false);
+        return true;
+    }
+
+    private Rubro rubroActivo(Rubro rubro) {
+        if (rubro == null || rubro.getId() == null) {
+            throw new IllegalArgumentException("Rubro inválido o dado de baja");
+        }
+        return rubroRepository.findActivoById(rubro.getId())
+                .orElseThrow(() -> new IllegalArgumentException("Rubro inválido o dado de baja"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.RiesgoTecnico;
+import com.AM.mvpAM.repositories.ObraRiesgoRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lecturas y ABM de riesgos técnicos. El riesgo se serializa con sus vínculos
+ * (obraRiesgos), que se inicializan dentro de la transacción: en las páginas
+ * se cargan en lotes de default_batch_fetch_size colecciones por consulta en
+ * vez de una por riesgo durante el render. Los errores de validación se
+ * informan con IllegalArgumentException.
+ */
+@Service
+public class RiesgoTecnicoService {
+
+    private final RiesgoTecnicoRepository riesgoTecnicoRepository;
+    private final ObraRiesgoRepository obraRiesgoRepository;
+    private final IndiceNumeros indiceNumeros;
+
+    public RiesgoTecnicoService(RiesgoTecnicoRepository riesgoTecnicoRepository,
+                                ObraRiesgoRepository obraRiesgoRepository,
+                                IndiceNumeros indiceNumeros) {
+        this.riesgoTecnicoRepository = riesgoTecnicoRepository;
+        this.obraRiesgoRepository = obraRiesgoRepository;
+        this.indiceNumeros = indiceNumeros;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RiesgoTecnico> listar(Pageable pageable) {
+        Page<RiesgoTecnico> page = riesgoTecnicoRepository.findAll(pageable);
+        inicializarVinculos(page.getContent());
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<RiesgoTecnico> listarAfter(Long afterId, int limit) {
+        Slice<RiesgoTecnico> slice = riesgoTecnicoRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, limit));
+        inicializarVinculos(slice.getContent());
+        return slice;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RiesgoTecnico> buscar(Long id) {
+        Optional<RiesgoTecnico> riesgo = riesgoTecnicoRepository.findByIdAndFechaBajaIsNull(id);
+        riesgo.ifPresent(r -> Hibernate.initialize(r.getObraRiesgos()));
+        return riesgo;
+    }
+
+    /** Se responde desde {@link IndiceNumeros}, sin consultar la base. */
+    public boolean existeNumero(Long nroRiesgo) {
+        return nroRiesgo != null && indiceNumeros.existeNroRiesgo(nroRiesgo);
+    }
+
+    @Transactional
+    public RiesgoTecnico crear(RiesgoTecnico riesgo) {
+        if (riesgo.getNroRiesgo() == null) {
+            throw new IllegalArgumentException("Número de riesgo requerido");
+        }
+        if (indiceNumeros.existeNroRiesgo(riesgo.getNroRiesgo())) {
+            throw new IllegalArgumentException("Ya existe un riesgo con ese número");
+        }
+        validarNaturaleza(riesgo);
+        return riesgoTecnicoRepository.save(riesgo);
+    }
+
+    @Transactional
+    public Optional<RiesgoTecnico> actualizar(Long id, RiesgoTecnico datos) {
+        Optional<RiesgoTecnico> existente = riesgoTecnicoRepository.findByIdAndFechaBajaIsNull(id);
+        if (existente.isEmpty()) {
+            return existente;
+        }
+        if (datos.getNroRiesgo() == null) {
+            throw new IllegalArgumentException("Número de riesgo requerido");
+        }
+        RiesgoTecnico r = existente.get();
+        if (!datos.getNroRiesgo().equals(r.getNroRiesgo()) && indiceNumeros.existeNroRiesgo(datos.getNroRiesgo())) {
+            throw new IllegalArgumentException("Ya existe un riesgo con ese número");
+        }
+        validarNaturaleza(datos);
+
+        r.setNroRiesgo(datos.getNroRiesgo());
+        r.setNaturalezaRiesgo(datos.getNaturalezaRiesgo());
+        r.setPropuestaSolucion(datos.getPropuestaSolucion());
+        r.setMedidasMitigacion(datos.getMedidasMitigacion());
+        r.setAccionesEjecutadas(datos.getAccionesEjecutadas());
+        Hibernate.initialize(r.getObraRiesgos());
+        return Optional.of(r);
+    }
+
+    /** Baja lógica; false si el riesgo no existe. */
+    @Transactional
+    public boolean darDeBaja(Long id) {
+        Optional<RiesgoTecnico> riesgo = riesgoTecnicoRepository.findByIdAndFechaBajaIsNull(id);
+        if (riesgo.isEmpty()) {
+            return false;
+        }
+        if (obraRiesgoRepository.countByRiesgoTecnicoIdAndObraFechaBajaIsNull(id) > 0) {
+            throw new IllegalArgumentException("El riesgo está asociado a una obra activa");
+        }
+        riesgo.get().setFechaBaja(LocalDateTime.now());
+        return true;
+    }
+
+    private static void validarNaturaleza(RiesgoTecnico riesgo) {
+        if (riesgo.getNaturalezaRiesgo() == null || riesgo.getNaturalezaRiesgo().trim().isEmpty()) {
+            throw new IllegalArgumentException("La naturaleza del riesgo es requerida");
+        }
+    }
+
+    private static void inicializarVinculos(List<RiesgoTecnico> riesgos) {
+        riesgos.forEach(r -> Hibernate.initialize(r.getObraRiesgos()));
+    }
+}
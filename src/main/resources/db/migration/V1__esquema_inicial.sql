@@ -0,0 +1,124 @@
+-- Esquema inicial: tablas de las entidades y sus secuencias de ids.
+-- Los indices van en V2 y las claves foraneas en V3, despues de los indices, para que
+-- H2 reutilice los indices compuestos en lugar de crear uno propio por cada FK.
+
+-- Una secuencia por entidad (<entidad>_seq), con incremento igual al allocationSize (50)
+-- que usa el optimizador pooled-lo de Hibernate
+CREATE SEQUENCE departamento_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE estado_obra_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE localidad_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE obra_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE obra_estado_obra_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE obra_riesgo_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE obra_rubro_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE plan_proyecto_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE riesgo_tecnico_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE rubro_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE departamento (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nombre_departamento VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE localidad (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nombre_localidad VARCHAR(255),
+    departamento_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE rubro (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nombre_rubro VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE estado_obra (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nombre_estado_obra VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE plan_proyecto (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nombre_plan_proyecto VARCHAR(255),
+    descripcion_plan_proyecto VARCHAR(255),
+    meses_estudio INTEGER,
+    inversion_estimada NUMERIC(38,2),
+    tiempo_estimado INTEGER,
+    se_ejecuta BOOLEAN,
+    prioridad VARCHAR(255) CHECK (prioridad IN ('UNO', 'DOS', 'TRES', 'CUATRO')),
+    rubro_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE riesgo_tecnico (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nro_riesgo BIGINT,
+    naturaleza_riesgo VARCHAR(255),
+    propuesta_solucion VARCHAR(255),
+    medidas_mitigacion VARCHAR(255),
+    acciones_ejecutadas VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE obra (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    nro_obra BIGINT,
+    nombre_obra VARCHAR(255),
+    tiempo_ejecucion INTEGER,
+    anio_ejecucion INTEGER,
+    fecha_inicio_obra DATE,
+    fecha_fin_obra DATE,
+    inversion_final NUMERIC(38,2),
+    version BIGINT NOT NULL,
+    plan_proyecto_id BIGINT,
+    estado_actual_id BIGINT,
+    fecha_estado_actual TIMESTAMP(6),
+    localidad_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE obra_estado_obra (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    fecha_hora_inicio TIMESTAMP(6),
+    fecha_hora_fin TIMESTAMP(6),
+    obra_id BIGINT,
+    estado_obra_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE obra_riesgo (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    obra_id BIGINT,
+    riesgo_id BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE obra_rubro (
+    id BIGINT NOT NULL,
+    fecha_alta TIMESTAMP(6),
+    fecha_baja TIMESTAMP(6),
+    obra_id BIGINT,
+    rubro_id BIGINT,
+    PRIMARY KEY (id)
+);
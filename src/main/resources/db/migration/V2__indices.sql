@@ -0,0 +1,38 @@
+-- Indices de las consultas de los repositorios. Casi todas filtran obras activas
+-- (fecha_baja IS NULL), asi que fecha_baja acompana a la columna filtrada.
+-- PlanesDeConsultaTest verifica con EXPLAIN que ninguna consulta de ObraRepository
+-- ni de ObraEstadoObraRepository recorra obra ni sus tablas hijas completas.
+
+-- Numero de obra unico entre obras activas. Con NULLS NOT DISTINCT dos filas con
+-- fecha_baja NULL chocan, y las dadas de baja (fecha_baja distinta) no.
+-- Tambien resuelve existsByNroObraAndFechaBajaIsNull.
+ALTER TABLE obra ADD CONSTRAINT uk_obra_nro_activa
+    UNIQUE NULLS NOT DISTINCT (nro_obra, fecha_baja);
+
+-- El numero de riesgo no se reutiliza, ni siquiera despues de una baja
+ALTER TABLE riesgo_tecnico ADD CONSTRAINT uk_riesgo_tecnico_nro UNIQUE (nro_riesgo);
+
+-- Listados de activas ordenados por id, cursor (id > :afterId), exportacion y totales
+CREATE INDEX idx_obra_activas ON obra (fecha_baja, id);
+-- Busqueda con filtros (ObraSpecifications) y agregados por referencia
+CREATE INDEX idx_obra_estado_actual ON obra (estado_actual_id, fecha_baja);
+CREATE INDEX idx_obra_localidad ON obra (localidad_id, fecha_baja);
+CREATE INDEX idx_obra_plan ON obra (plan_proyecto_id, fecha_baja);
+CREATE INDEX idx_obra_anio ON obra (fecha_baja, anio_ejecucion);
+CREATE INDEX idx_obra_inversion ON obra (fecha_baja, inversion_final);
+
+-- Estado abierto de una obra (cerrarEstadosAbiertos, findEstadosAbiertosByObraIds)
+CREATE INDEX idx_obra_estado_obra_abierto ON obra_estado_obra (obra_id, fecha_hora_fin);
+-- Obras por estado en el historial (countByEstadoObraIdAndObraFechaBajaIsNull)
+CREATE INDEX idx_obra_estado_obra_estado ON obra_estado_obra (estado_obra_id, obra_id);
+
+-- Riesgos de una obra y obras de un riesgo (filtro EXISTS de la busqueda)
+CREATE INDEX idx_obra_riesgo_obra ON obra_riesgo (obra_id);
+CREATE INDEX idx_obra_riesgo_riesgo ON obra_riesgo (riesgo_id, obra_id);
+
+CREATE INDEX idx_obra_rubro_obra ON obra_rubro (obra_id);
+CREATE INDEX idx_obra_rubro_rubro ON obra_rubro (rubro_id);
+
+-- Catalogos: localidades por departamento y planes por rubro y prioridad
+CREATE INDEX idx_localidad_departamento ON localidad (departamento_id, fecha_baja);
+CREATE INDEX idx_plan_rubro_prioridad ON plan_proyecto (rubro_id, prioridad);
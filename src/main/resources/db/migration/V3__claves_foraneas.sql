@@ -0,0 +1,30 @@
+-- Claves foraneas, despues de V2: cada una queda cubierta por un indice que empieza
+-- por su columna, y H2 lo reutiliza en lugar de crear otro.
+
+ALTER TABLE localidad ADD CONSTRAINT fk_localidad_departamento
+    FOREIGN KEY (departamento_id) REFERENCES departamento (id);
+
+ALTER TABLE plan_proyecto ADD CONSTRAINT fk_plan_proyecto_rubro
+    FOREIGN KEY (rubro_id) REFERENCES rubro (id);
+
+ALTER TABLE obra ADD CONSTRAINT fk_obra_plan_proyecto
+    FOREIGN KEY (plan_proyecto_id) REFERENCES plan_proyecto (id);
+ALTER TABLE obra ADD CONSTRAINT fk_obra_estado_actual
+    FOREIGN KEY (estado_actual_id) REFERENCES estado_obra (id);
+ALTER TABLE obra ADD CONSTRAINT fk_obra_localidad
+    FOREIGN KEY (localidad_id) REFERENCES localidad (id);
+
+ALTER TABLE obra_estado_obra ADD CONSTRAINT fk_obra_estado_obra_obra
+    FOREIGN KEY (obra_id) REFERENCES obra (id);
+ALTER TABLE obra_estado_obra ADD CONSTRAINT fk_obra_estado_obra_estado
+    FOREIGN KEY (estado_obra_id) REFERENCES estado_obra (id);
+
+ALTER TABLE obra_riesgo ADD CONSTRAINT fk_obra_riesgo_obra
+    FOREIGN KEY (obra_id) REFERENCES obra (id);
+ALTER TABLE obra_riesgo ADD CONSTRAINT fk_obra_riesgo_riesgo
+    FOREIGN KEY (riesgo_id) REFERENCES riesgo_tecnico (id);
+
+ALTER TABLE obra_rubro ADD CONSTRAINT fk_obra_rubro_obra
+    FOREIGN KEY (obra_id) REFERENCES obra (id);
+ALTER TABLE obra_rubro ADD CONSTRAINT fk_obra_rubro_rubro
+    FOREIGN KEY (rubro_id) REFERENCES rubro (id);
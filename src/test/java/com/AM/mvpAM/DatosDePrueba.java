@@ -0,0 +1,97 @@
+package com.AM.mvpAM;
+
+import com.AM.mvpAM.entities.*;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datos mínimos para los tests que trabajan sobre obras, sembrados en una
+ * transacción: un departamento con una localidad, un plan sin ejecutar, los
+ * estados Planificacion, En ejecucion y Paralizada, riesgos técnicos y obras
+ * activas sin estado actual.
+ * <pre>
+ *   Sembrado datos = DatosDePrueba.sembrar(transactionTemplate, entityManager);
+ *   obraService.cambiarEstado(datos.obraId(), datos.ejecucionId());
+ * </pre>
+ * Las obras y los riesgos se numeran desde {@code nroBase}; quien siembra más
+ * de una vez en el mismo contexto usa bases distintas.
+ */
+public final class DatosDePrueba {
+
+    private DatosDePrueba() {
+    }
+
+    /** Una obra (número 1) y ningún riesgo. */
+    public static Sembrado sembrar(TransactionTemplate transactionTemplate, EntityManager entityManager) {
+        return sembrar(transactionTemplate, entityManager, 1, 0, 1L);
+    }
+
+    public static Sembrado sembrar(TransactionTemplate transactionTemplate, EntityManager entityManager,
+                                   int obras, int riesgos, long nroBase) {
+        return transactionTemplate.execute(status -> {
+            Departamento d = new Departamento();
+            d.setNombreDepartamento("Test");
+            entityManager.persist(d);
+            Localidad l = new Localidad();
+            l.setNombreLocalidad("Test");
+            l.setDepartamento(d);
+            entityManager.persist(l);
+            PlanProyecto plan = new PlanProyecto();
+            plan.setNombrePlanProyecto("Plan");
+            plan.setSeEjecuta(false);
+            entityManager.persist(plan);
+            EstadoObra planificacion = estado(entityManager, "Planificacion");
+            EstadoObra ejecucion = estado(entityManager, "En ejecucion");
+            EstadoObra paralizada = estado(entityManager, "Paralizada");
+
+            List<Long> riesgoIds = new ArrayList<>(riesgos);
+            for (int i = 0; i < riesgos; i++) {
+                RiesgoTecnico riesgo = new RiesgoTecnico();
+                riesgo.setNroRiesgo(nroBase + i);
+                riesgo.setNaturalezaRiesgo("Riesgo " + i);
+                entityManager.persist(riesgo);
+                riesgoIds.add(riesgo.getId());
+            }
+            List<Long> obraIds = new ArrayList<>(obras);
+            for (int i = 0; i < obras; i++) {
+                Obra obra = new Obra();
+                obra.setNroObra(nroBase + i);
+                obra.setNombreObra("Obra " + (nroBase + i));
+                obra.setTiempoEjecucion(12);
+                obra.setAnioEjecucion(2024);
+                obra.setFechaInicioObra(LocalDate.now());
+                obra.setInversionFinal(new BigDecimal("100000"));
+                obra.setLocalidad(l);
+                entityManager.persist(obra);
+                obraIds.add(obra.getId());
+            }
+            return new Sembrado(l.getId(), plan.getId(), planificacion.getId(), ejecucion.getId(),
+                    paralizada.getId(), List.copyOf(riesgoIds), List.copyOf(obraIds));
+        });
+    }
+
+    private static EstadoObra estado(EntityManager entityManager, String nombre) {
+        EstadoObra estado = new EstadoObra();
+        estado.setNombreEstadoObra(nombre);
+        entityManager.persist(estado);
+        return estado;
+    }
+
+    public record Sembrado(Long localidadId, Long planId, Long planificacionId, Long ejecucionId,
+                           Long paralizadaId, List<Long> riesgoIds, List<Long> obraIds) {
+
+        /** La primera obra sembrada. */
+        public Long obraId() {
+            return obraIds.get(0);
+        }
+
+        public List<Long> estadoIds() {
+            return List.of(planificacionId, ejecucionId, paralizadaId);
+        }
+    }
+}
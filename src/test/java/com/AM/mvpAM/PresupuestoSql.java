@@ -0,0 +1,51 @@
+package com.AM.mvpAM;
+
+import com.AM.mvpAM.config.ConsultasSql;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Presupuesto de sentencias SQL para fijar en los tests lo que cuesta un
+ * endpoint o un método de servicio:
+ * <pre>
+ *   assertQueryCount(0, () -> mockMvc.perform(get("/api/dashboard/stats")));
+ *   assertQueryCountAtMost(3, () -> obraService.listarActivas(pagina));
+ * </pre>
+ * Cuenta lo que Hibernate ejecuta en el hilo del test (y en las tareas
+ * propagadas con ConsultasSql.propagar); si no se cumple, el mensaje trae
+ * las sentencias ejecutadas.
+ */
+public final class PresupuestoSql {
+
+    private PresupuestoSql() {
+    }
+
+    public static <T> T assertQueryCount(int esperadas, ThrowingSupplier<T> accion) {
+        return verificar(accion, esperadas, true);
+    }
+
+    public static <T> T assertQueryCountAtMost(int maximo, ThrowingSupplier<T> accion) {
+        return verificar(accion, maximo, false);
+    }
+
+    private static <T> T verificar(ThrowingSupplier<T> accion, int presupuesto, boolean exacto) {
+        T resultado;
+        ConsultasSql.Contador contador;
+        try (ConsultasSql.Contador c = ConsultasSql.iniciar()) {
+            contador = c;
+            resultado = accion.get();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new AssertionError("La acción falló", t);
+        }
+        int cantidad = contador.cantidad();
+        if (exacto ? cantidad != presupuesto : cantidad > presupuesto) {
+            fail(String.format("Se esperaban %s%d sentencias SQL y se ejecutaron %d:%n  %s",
+                    exacto ? "" : "a lo sumo ", presupuesto, cantidad,
+                    String.join(System.lineSeparator() + "  ", contador.sentencias())));
+        }
+        return resultado;
+    }
+}
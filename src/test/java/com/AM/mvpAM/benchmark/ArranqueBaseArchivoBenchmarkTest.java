@@ -0,0 +1,123 @@
+package com.AM.mvpAM.benchmark;
+
+import com.AM.mvpAM.MvpAmApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tiempo hasta "lista" (SpringApplication.run, incluidos los listeners de
+ * ApplicationReadyEvent que reconstruyen agregados e índices) con la base en
+ * archivo del perfil 'file' ya poblada.
+ * El primer arranque crea el esquema y carga los datos de ejemplo; después se
+ * insertan las obras por SQL y se mide cada reinicio, que no debe volver a sembrar.
+ * La JVM ya está caliente desde el segundo arranque: mide la aplicación, no el JIT.
+ * Configurable con -Dbench.obras (1000000) y -Dbench.reinicios (3).
+ */
+@Tag("benchmark")
+class ArranqueBaseArchivoBenchmarkTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void reinicioConBasePoblada() throws Exception {
+        int obras = Integer.getInteger("bench.obras", 1_000_000);
+        int reinicios = Integer.getInteger("bench.reinicios", 3);
+
+        long total;
+        long t0 = System.nanoTime();
+        try (ConfigurableApplicationContext contexto = arrancar()) {
+            System.out.printf("[bench] arranque inicial (esquema + datos de ejemplo) tiempo=%.2fs%n", (System.nanoTime() - t0) / 1e9);
+            long carga = System.nanoTime();
+            poblar(contexto.getBean(DataSource.class), obras);
+            System.out.printf("[bench] arranque carga obras=%d tiempo=%.1fs%n", obras, (System.nanoTime() - carga) / 1e9);
+            total = contarObras(contexto.getBean(DataSource.class));
+        }
+
+        for (int i = 1; i <= reinicios; i++) {
+            long inicio = System.nanoTime();
+            try (ConfigurableApplicationContext contexto = arrancar()) {
+                double segundos = (System.nanoTime() - inicio) / 1e9;
+                long obrasTrasReinicio = contarObras(contexto.getBean(DataSource.class));
+                assertEquals(total, obrasTrasReinicio, "El reinicio no debe perder ni volver a sembrar obras");
+                System.out.printf("[bench] arranque reinicio=%d obras=%d listo=%.2fs archivo=%dMB%n",
+                        i, obrasTrasReinicio, segundos, tamanioArchivo() / (1024 * 1024));
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext arrancar() {
+        return new SpringApplicationBuilder(MvpAmApplication.class)
+                .profiles("file")
+                .properties(
+                        "H2_DIR=" + directorio.toAbsolutePath(),
+                        "server.port=0",
+                        "spring.jpa.show-sql=false")
+                .run();
+    }
+
+    // Obras activas con su estado abierto, repartidas entre los catálogos de ejemplo.
+    // Ids por NEXT VALUE de la secuencia: no chocan con los bloques que reserva Hibernate.
+    private static void poblar(DataSource dataSource, int obras) throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement()) {
+            c.setAutoCommit(false);
+            String localidad = elegir(st, "SELECT id FROM localidad");
+            String plan = elegir(st, "SELECT id FROM plan_proyecto");
+            String estado = elegir(st, "SELECT id FROM estado_obra");
+            st.executeUpdate("INSERT INTO obra (id, version, fecha_alta, nro_obra, nombre_obra, tiempo_ejecucion, anio_ejecucion, "
+                    + "fecha_inicio_obra, inversion_final, localidad_id, plan_proyecto_id, estado_actual_id, fecha_estado_actual) "
+                    + "SELECT NEXT VALUE FOR obra_seq, 0, CURRENT_TIMESTAMP, 1000000 + X, CONCAT('Obra ', X), 12, 2015 + MOD(X, 10), "
+                    + "DATEADD(DAY, -MOD(X, 3650), CURRENT_DATE), 50000 + MOD(X * 7919, 200000), "
+                    + localidad + ", " + plan + ", " + estado + ", "
+                    + "CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + obras + ")");
+            st.executeUpdate("INSERT INTO obra_estado_obra (id, fecha_alta, fecha_hora_inicio, obra_id, estado_obra_id) "
+                    + "SELECT NEXT VALUE FOR obra_estado_obra_seq, CURRENT_TIMESTAMP, fecha_estado_actual, id, estado_actual_id "
+                    + "FROM obra WHERE nro_obra > 1000000");
+            c.commit();
+            st.execute("ANALYZE");
+        }
+    }
+
+    // Expresión que elige uno de los ids por fila: ARRAY[...][MOD(X, n) + 1]
+    private static String elegir(Statement st, String sql) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        try (ResultSet rs = st.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "ARRAY[", "]"))
+                + "[MOD(X, " + ids.size() + ") + 1]";
+    }
+
+    private static long contarObras(DataSource dataSource) throws Exception {
+        try (Connection c = dataSource.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM obra")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private long tamanioArchivo() throws Exception {
+        try (var archivos = Files.list(directorio)) {
+            return archivos.filter(p -> p.getFileName().toString().endsWith(".mv.db"))
+                    .mapToLong(p -> p.toFile().length())
+                    .sum();
+        }
+    }
+}
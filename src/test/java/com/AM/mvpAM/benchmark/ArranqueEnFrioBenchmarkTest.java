@@ -0,0 +1,138 @@
+package com.AM.mvpAM.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Arranque en frío de cada variante de despliegue, como proceso aparte:
+ * tiempo hasta la primera respuesta 200 de GET /api/obras y RSS (VmRSS de
+ * /proc, sólo Linux) después de esa respuesta. Perfil por defecto (H2 en
+ * memoria con los datos de ejemplo), igual para las tres variantes.
+ * <p>
+ * Se mide cada variante cuyo artefacto exista:
+ * <pre>
+ *   ./gradlew bootJar cdsArchive              (bootJar y AppCDS)
+ *   ./gradlew -Pnative nativeCompile          (imagen nativa, con GraalVM)
+ *   ./gradlew benchmark --tests '*ArranqueEnFrioBenchmarkTest' -Dbench.arranques=5
+ * </pre>
+ */
+@Tag("benchmark")
+class ArranqueEnFrioBenchmarkTest {
+
+    private static final String JAR = "mvpAM-0.0.1-SNAPSHOT.jar";
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void primeraRespuestaYMemoria() throws Exception {
+        int arranques = Integer.getInteger("bench.arranques", 5);
+        Path build = Path.of(System.getProperty("user.dir"), "build");
+
+        List<Variante> variantes = new ArrayList<>();
+        Path bootJar = build.resolve("libs").resolve(JAR);
+        if (Files.exists(bootJar)) {
+            variantes.add(new Variante("bootJar", List.of("java", "-jar", bootJar.toString())));
+        }
+        Path cds = build.resolve("cds");
+        if (Files.exists(cds.resolve("app.jsa"))) {
+            variantes.add(new Variante("appcds", List.of("java", "-XX:SharedArchiveFile=" + cds.resolve("app.jsa"),
+                    "-Xshare:on", "-jar", cds.resolve(JAR).toString())));
+        }
+        Path nativo = build.resolve("native").resolve("nativeCompile").resolve("mvpAM");
+        if (Files.isExecutable(nativo)) {
+            variantes.add(new Variante("native", List.of(nativo.toString())));
+        }
+        assertFalse(variantes.isEmpty(), "No hay artefactos: correr ./gradlew bootJar cdsArchive");
+
+        for (Variante variante : variantes) {
+            long[] tiempos = new long[arranques];
+            long[] rss = new long[arranques];
+            for (int i = 0; i < arranques; i++) {
+                long[] medicion = medir(variante);
+                tiempos[i] = medicion[0];
+                rss[i] = medicion[1];
+            }
+            Arrays.sort(tiempos);
+            Arrays.sort(rss);
+            System.out.printf("[bench] arranque-frio variante=%s arranques=%d primera-respuesta p50=%dms max=%dms rss p50=%dMB%n",
+                    variante.nombre(), arranques, tiempos[arranques / 2] / 1_000_000, tiempos[arranques - 1] / 1_000_000,
+                    rss[arranques / 2] / 1024);
+        }
+    }
+
+    /** {nanos hasta la primera respuesta, RSS en KB} */
+    private long[] medir(Variante variante) throws Exception {
+        int puerto = puertoLibre();
+        List<String> comando = new ArrayList<>(variante.comando());
+        comando.add(1, "-Dserver.port=" + puerto);
+        comando.add(2, "-Dspring.jpa.show-sql=false");
+        ProcessBuilder pb = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        URI uri = URI.create("http://localhost:" + puerto + "/api/obras?page=0&size=10");
+
+        long inicio = System.nanoTime();
+        Process proceso = pb.start();
+        try {
+            while (true) {
+                if (!proceso.isAlive()) {
+                    throw new IllegalStateException(variante.nombre() + " terminó con código " + proceso.exitValue());
+                }
+                try {
+                    HttpResponse<Void> respuesta = http.send(HttpRequest.newBuilder(uri).GET().build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    if (respuesta.statusCode() == 200) {
+                        break;
+                    }
+                } catch (ConnectException e) {
+                    // Todavía no escucha
+                }
+                Thread.sleep(10);
+                if (System.nanoTime() - inicio > Duration.ofMinutes(2).toNanos()) {
+                    throw new IllegalStateException(variante.nombre() + " no respondió en 2 minutos");
+                }
+            }
+            long nanos = System.nanoTime() - inicio;
+            return new long[]{nanos, rssKb(proceso.pid())};
+        } finally {
+            proceso.destroy();
+            proceso.waitFor();
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String linea : Files.readAllLines(status)) {
+            if (linea.startsWith("VmRSS:")) {
+                return Long.parseLong(linea.replaceAll("\\D", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variante(String nombre, List<String> comando) {
+    }
+}
@@ -0,0 +1,137 @@
+package com.AM.mvpAM.benchmark;
+
+import com.AM.mvpAM.DatosDePrueba;
+import com.AM.mvpAM.DatosDePrueba.Sembrado;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.ObraEstadoObra;
+import com.AM.mvpAM.service.ObraService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transiciones de estado con alta contención: muchos hilos sobre pocas obras.
+ * Compara el control optimista con reintentos (ObraService.cambiarEstado)
+ * contra un bloqueo pesimista de la fila de la obra (SELECT ... FOR UPDATE),
+ * y reporta transiciones/s, fallos, reintentos y obras inconsistentes
+ * (con más o menos de un estado abierto, o estadoActual distinto del abierto).
+ * Configurable con -Dbench.obras (4), -Dbench.hilos (16) y
+ * -Dbench.transiciones (transiciones por hilo, 200).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_contencion"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class CambioEstadoContencionBenchmarkTest {
+
+    private final int obras = Integer.getInteger("bench.obras", 4);
+    private final int hilos = Integer.getInteger("bench.hilos", 16);
+    private final int transiciones = Integer.getInteger("bench.transiciones", 200);
+
+    @Autowired
+    private ObraService obraService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void optimista() throws Exception {
+        Sembrado refs = DatosDePrueba.sembrar(transactionTemplate, entityManager, obras, 0, 1_000_000L);
+        long reintentosPrevios = obraService.getReintentosCambioEstado();
+        correr("optimista+reintentos", refs, (obraId, estadoId) -> obraService.cambiarEstado(obraId, estadoId));
+        System.out.printf("[bench] bloqueo=optimista+reintentos reintentos=%d%n",
+                obraService.getReintentosCambioEstado() - reintentosPrevios);
+    }
+
+    @Test
+    void pesimista() throws Exception {
+        Sembrado refs = DatosDePrueba.sembrar(transactionTemplate, entityManager, obras, 0, 2_000_000L);
+        correr("pesimista", refs, (obraId, estadoId) -> transactionTemplate.executeWithoutResult(status -> {
+            Obra obra = entityManager.find(Obra.class, obraId, LockModeType.PESSIMISTIC_WRITE);
+            obraService.registrarEstado(obra, entityManager.find(EstadoObra.class, estadoId));
+        }));
+    }
+
+    private void correr(String estrategia, Sembrado refs, Transicion transicion) throws Exception {
+        AtomicLong fallos = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        long inicio;
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                int hilo = h;
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < transiciones; i++) {
+                        Long obraId = refs.obraIds().get((hilo + i) % refs.obraIds().size());
+                        Long estadoId = refs.estadoIds().get(i % refs.estadoIds().size());
+                        try {
+                            transicion.aplicar(obraId, estadoId);
+                        } catch (ConcurrencyFailureException e) {
+                            fallos.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long total = (long) hilos * transiciones;
+
+        System.out.printf("[bench] bloqueo=%s obras=%d hilos=%d transiciones=%d tiempo=%.2fs transiciones/s=%.0f fallos=%d inconsistentes=%d%n",
+                estrategia, obras, hilos, total, segundos, (total - fallos.get()) / segundos, fallos.get(),
+                inconsistentes(refs.obraIds()));
+    }
+
+    private long inconsistentes(List<Long> obraIds) {
+        return transactionTemplate.execute(status -> {
+            long cantidad = 0;
+            for (Long obraId : obraIds) {
+                List<ObraEstadoObra> abiertos = entityManager.createQuery(
+                                "SELECT oe FROM ObraEstadoObra oe WHERE oe.obra.id = :id AND oe.fechaHoraFin IS NULL",
+                                ObraEstadoObra.class)
+                        .setParameter("id", obraId)
+                        .getResultList();
+                Obra obra = entityManager.find(Obra.class, obraId);
+                if (abiertos.size() != 1
+                        || !abiertos.get(0).getEstadoObra().getId().equals(obra.getEstadoActual().getId())) {
+                    cantidad++;
+                }
+            }
+            return cantidad;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Transicion {
+        void aplicar(Long obraId, Long estadoId);
+    }
+}
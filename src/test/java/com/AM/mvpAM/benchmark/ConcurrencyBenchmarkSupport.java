@@ -0,0 +1,134 @@
+package com.AM.mvpAM.benchmark;
+
+import com.AM.mvpAM.DatosDePrueba;
+import com.AM.mvpAM.DatosDePrueba.Sembrado;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Throughput y p99 de GET /api/obras y POST /api/obras/{id}/estado con 100,
+ * 1000 y 5000 clientes concurrentes. Cada cliente es un hilo virtual del lado
+ * del benchmark, así que lo único que cambia entre subclases es cómo atiende
+ * el servidor (pool de Tomcat o hilos virtuales + guarda JDBC).
+ * Configurable con -Dbench.clientes=100,1000,5000 y -Dbench.requests (por cliente, 10).
+ */
+@Tag("benchmark")
+abstract class ConcurrencyBenchmarkSupport {
+
+    private static final int OBRAS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    protected abstract String modo();
+
+    @Test
+    void concurrentClients() throws Exception {
+        Sembrado datos = DatosDePrueba.sembrar(transactionTemplate, entityManager, OBRAS, 0, 500_000L);
+        List<Long> obraIds = datos.obraIds();
+
+        int requests = Integer.getInteger("bench.requests", 10);
+        String base = "http://localhost:" + port + "/api/obras";
+
+        // Calentamiento: JIT y pool de conexiones
+        medir(50, requests, i -> get(base + "?page=0&size=20"));
+
+        for (String valor : System.getProperty("bench.clientes", "100,1000,5000").split(",")) {
+            int clientes = Integer.parseInt(valor.trim());
+            reportar("GET /api/obras", clientes,
+                    medir(clientes, requests, i -> get(base + "?page=0&size=20")));
+            reportar("POST /api/obras/{id}/estado", clientes,
+                    medir(clientes, requests, i -> post(base + "/" + obraIds.get(i % OBRAS) + "/estado",
+                            "{\"estadoId\":" + (i % 2 == 0 ? datos.ejecucionId() : datos.planificacionId()) + "}")));
+        }
+    }
+
+    private Resultado medir(int clientes, int requests, IntFunction<HttpRequest> request) throws InterruptedException {
+        long[][] latencias = new long[clientes][requests];
+        AtomicLong errores = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+        long inicio;
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clientes; c++) {
+                int cliente = c;
+                ejecutor.submit(() -> {
+                    largada.await();
+                    for (int r = 0; r < requests; r++) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = http.send(request.apply(cliente * requests + r),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() >= 400) {
+                                errores.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                        latencias[cliente][r] = System.nanoTime() - t0;
+                    }
+                    return null;
+                });
+            }
+            inicio = System.nanoTime();
+            largada.countDown();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long[] todas = Arrays.stream(latencias).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Resultado(todas, segundos, errores.get());
+    }
+
+    private void reportar(String endpoint, int clientes, Resultado r) {
+        System.out.printf("[bench] modo=%s endpoint=%s clientes=%d requests=%d req/s=%.0f p50=%.1fms p99=%.1fms errores=%d%n",
+                modo(), endpoint, clientes, r.latencias().length, r.latencias().length / r.segundos(),
+                percentil(r.latencias(), 0.50), percentil(r.latencias(), 0.99), r.errores());
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+    }
+
+    private static HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private record Resultado(long[] latencias, double segundos, long errores) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.AM.mvpAM.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+// Línea de base: ids IDENTITY (un INSERT inmediato por fila, sin lotes JDBC)
+// El esquema lo genera Hibernate: las migraciones declaran los ids por secuencia
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_identity",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.mapping-resources=META-INF/orm-identity.xml",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class IdentityInsertBenchmarkTest extends InsertBenchmarkSupport {
+
+    @Override
+    protected String estrategia() {
+        return "identity";
+    }
+}
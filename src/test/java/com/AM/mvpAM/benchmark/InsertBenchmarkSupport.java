@@ -0,0 +1,104 @@
+package com.AM.mvpAM.benchmark;
+
+import com.AM.mvpAM.DatosDePrueba;
+import com.AM.mvpAM.DatosDePrueba.Sembrado;
+import com.AM.mvpAM.entities.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Siembra obras con dos registros de historial de estado y un vínculo de
+ * riesgo cada una, y reporta filas insertadas por segundo y sentencias JDBC
+ * preparadas. Las subclases sólo cambian la estrategia de ids.
+ * Tamaño configurable con -Dbench.obras (por defecto 5000).
+ */
+@Tag("benchmark")
+abstract class InsertBenchmarkSupport {
+
+    private static final int LOTE = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    protected abstract String estrategia();
+
+    @Test
+    void seedObras() {
+        int obras = Integer.getInteger("bench.obras", 5000);
+
+        Sembrado datos = DatosDePrueba.sembrar(transactionTemplate, entityManager, 0, 1, 100_000L);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        long inicio = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Localidad localidad = entityManager.getReference(Localidad.class, datos.localidadId());
+            EstadoObra planificacion = entityManager.getReference(EstadoObra.class, datos.planificacionId());
+            EstadoObra ejecucion = entityManager.getReference(EstadoObra.class, datos.ejecucionId());
+            RiesgoTecnico riesgo = entityManager.getReference(RiesgoTecnico.class, datos.riesgoIds().get(0));
+            LocalDateTime ahora = LocalDateTime.now();
+
+            for (int i = 0; i < obras; i++) {
+                Obra obra = new Obra();
+                obra.setNroObra(100_000L + i);
+                obra.setNombreObra("Obra " + i);
+                obra.setTiempoEjecucion(12);
+                obra.setAnioEjecucion(2024);
+                obra.setFechaInicioObra(LocalDate.now());
+                obra.setInversionFinal(new BigDecimal("100000"));
+                obra.setLocalidad(localidad);
+                entityManager.persist(obra);
+
+                ObraEstadoObra inicial = new ObraEstadoObra();
+                inicial.setObra(obra);
+                inicial.setEstadoObra(planificacion);
+                inicial.setFechaHoraInicio(ahora.minusMonths(1));
+                inicial.setFechaHoraFin(ahora);
+                entityManager.persist(inicial);
+
+                ObraEstadoObra actual = new ObraEstadoObra();
+                actual.setObra(obra);
+                actual.setEstadoObra(ejecucion);
+                actual.setFechaHoraInicio(ahora);
+                entityManager.persist(actual);
+
+                ObraRiesgo link = new ObraRiesgo();
+                link.setObra(obra);
+                link.setRiesgoTecnico(riesgo);
+                entityManager.persist(link);
+
+                if ((i + 1) % LOTE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    localidad = entityManager.getReference(Localidad.class, datos.localidadId());
+                    planificacion = entityManager.getReference(EstadoObra.class, datos.planificacionId());
+                    ejecucion = entityManager.getReference(EstadoObra.class, datos.ejecucionId());
+                    riesgo = entityManager.getReference(RiesgoTecnico.class, datos.riesgoIds().get(0));
+                }
+            }
+        });
+
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long filas = obras * 4L;
+        System.out.printf("[bench] ids=%s obras=%d filas=%d tiempo=%.2fs filas/s=%.0f sentencias=%d%n",
+                estrategia(), obras, filas, segundos, filas / segundos, stats.getPrepareStatementCount());
+    }
+}
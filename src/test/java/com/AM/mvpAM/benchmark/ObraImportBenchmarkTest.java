@@ -0,0 +1,89 @@
+package com.AM.mvpAM.benchmark;
+
+import com.AM.mvpAM.dto.ImportResultDTO;
+import com.AM.mvpAM.entities.Departamento;
+import com.AM.mvpAM.entities.EstadoObra;
+import com.AM.mvpAM.entities.Localidad;
+import com.AM.mvpAM.entities.RiesgoTecnico;
+import com.AM.mvpAM.repositories.DepartamentoRepository;
+import com.AM.mvpAM.repositories.EstadoObraRepository;
+import com.AM.mvpAM.repositories.LocalidadRepository;
+import com.AM.mvpAM.repositories.RiesgoTecnicoRepository;
+import com.AM.mvpAM.service.ObraImportService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Importa un CSV generado en memoria y reporta filas por segundo.
+ * Tamaño configurable con -Dbench.importFilas (por defecto 50000).
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_import"
+})
+@ActiveProfiles("test")
+class ObraImportBenchmarkTest {
+
+    @Autowired
+    private ObraImportService obraImportService;
+
+    @Autowired
+    private DepartamentoRepository departamentoRepository;
+
+    @Autowired
+    private LocalidadRepository localidadRepository;
+
+    @Autowired
+    private EstadoObraRepository estadoObraRepository;
+
+    @Autowired
+    private RiesgoTecnicoRepository riesgoTecnicoRepository;
+
+    @Test
+    void importarCsv() throws Exception {
+        int filas = Integer.getInteger("bench.importFilas", 50000);
+
+        Departamento d = new Departamento();
+        d.setNombreDepartamento("Bench");
+        departamentoRepository.save(d);
+        Localidad l = new Localidad();
+        l.setNombreLocalidad("Bench");
+        l.setDepartamento(d);
+        localidadRepository.save(l);
+        EstadoObra planificacion = new EstadoObra();
+        planificacion.setNombreEstadoObra("Planificacion");
+        estadoObraRepository.save(planificacion);
+        RiesgoTecnico r1 = new RiesgoTecnico();
+        r1.setNroRiesgo(1L);
+        r1.setNaturalezaRiesgo("Ambiental");
+        riesgoTecnicoRepository.save(r1);
+        RiesgoTecnico r2 = new RiesgoTecnico();
+        r2.setNroRiesgo(2L);
+        r2.setNaturalezaRiesgo("Financiero");
+        riesgoTecnicoRepository.save(r2);
+
+        StringBuilder csv = new StringBuilder(filas * 80);
+        csv.append("nroObra,nombreObra,tiempoEjecucion,anioEjecucion,fechaInicioObra,inversionFinal,localidadId,riesgoIds\n");
+        for (int i = 0; i < filas; i++) {
+            csv.append(500_000 + i).append(",\"Obra ").append(i).append("\",12,2024,2024-03-01,150000.50,")
+                    .append(l.getId()).append(',').append(r1.getId()).append('|').append(r2.getId()).append('\n');
+        }
+        byte[] datos = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        ImportResultDTO resultado = obraImportService.importar(
+                new ByteArrayInputStream(datos), ObraImportService.LOTE_POR_DEFECTO);
+
+        assertEquals(filas, resultado.getImportadas(), () -> "errores: " + resultado.getErrores());
+        double segundos = resultado.getDuracionMs() / 1000.0;
+        System.out.printf("[bench] import filas=%d tiempo=%.2fs filas/s=%.0f%n",
+                filas, segundos, filas / Math.max(segundos, 0.001));
+    }
+}
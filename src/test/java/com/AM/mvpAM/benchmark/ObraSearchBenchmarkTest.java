@@ -0,0 +1,207 @@
+package com.AM.mvpAM.benchmark;
+
+import com.AM.mvpAM.entities.*;
+import com.AM.mvpAM.enums.Prioridad;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Latencia de GET /api/obras/search sobre un volumen grande de obras, por
+ * combinación de filtros (p50/p99 de extremo a extremo, HTTP incluido).
+ * Las obras y sus vínculos con riesgos se insertan con INSERT ... SELECT
+ * sobre SYSTEM_RANGE de H2, repartidas entre 200 localidades, 100 planes,
+ * 5 estados y 50 riesgos.
+ * Configurable con -Dbench.obras (1000000) y -Dbench.consultas (por escenario, 200).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_search"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class ObraSearchBenchmarkTest {
+
+    private static final int DEPARTAMENTOS = 20;
+    private static final int LOCALIDADES_POR_DEPARTAMENTO = 10;
+    private static final int RUBROS = 5;
+    private static final int PLANES = 100;
+    private static final int ESTADOS = 5;
+    private static final int RIESGOS = 50;
+
+    @LocalServerPort
+    private int port;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+
+    @Test
+    void busquedaConFiltros() throws Exception {
+        int obras = Integer.getInteger("bench.obras", 1_000_000);
+        int consultas = Integer.getInteger("bench.consultas", 200);
+        Catalogos c = sembrarCatalogos();
+
+        long inicioCarga = System.nanoTime();
+        sembrarObras(obras, c);
+        System.out.printf("[bench] search carga obras=%d tiempo=%.1fs%n", obras, (System.nanoTime() - inicioCarga) / 1e9);
+
+        Random random = new Random(7);
+        Map<String, Function<Random, String>> escenarios = new LinkedHashMap<>();
+        escenarios.put("localidad", r -> "localidadId=" + elegir(r, c.localidades()));
+        escenarios.put("departamento+anio", r -> "departamentoId=" + elegir(r, c.departamentos())
+                + "&anioDesde=2019&anioHasta=2021");
+        escenarios.put("estado+inversion+orden", r -> "estadoId=" + elegir(r, c.estados())
+                + "&inversionDesde=100000&inversionHasta=150000&sort=inversionFinal,desc");
+        escenarios.put("rubro+prioridad", r -> "rubroId=" + elegir(r, c.rubros())
+                + "&prioridad=" + Prioridad.values()[r.nextInt(Prioridad.values().length)]);
+        escenarios.put("riesgo", r -> "riesgoId=" + elegir(r, c.riesgos()));
+        escenarios.put("todos", r -> "localidadId=" + elegir(r, c.localidades())
+                + "&anioDesde=2015&anioHasta=2024&estadoId=" + elegir(r, c.estados())
+                + "&riesgoId=" + elegir(r, c.riesgos()));
+
+        String base = "http://localhost:" + port + "/api/obras/search?size=20&";
+        // Calentamiento: JIT, planes de consulta y pool de conexiones
+        for (Function<Random, String> escenario : escenarios.values()) {
+            for (int i = 0; i < 50; i++) {
+                get(base + escenario.apply(random));
+            }
+        }
+        for (Map.Entry<String, Function<Random, String>> escenario : escenarios.entrySet()) {
+            long[] latencias = new long[consultas];
+            int errores = 0;
+            for (int i = 0; i < consultas; i++) {
+                long t0 = System.nanoTime();
+                if (get(base + escenario.getValue().apply(random)) >= 400) {
+                    errores++;
+                }
+                latencias[i] = System.nanoTime() - t0;
+            }
+            Arrays.sort(latencias);
+            System.out.printf("[bench] search obras=%d escenario=%s consultas=%d p50=%.2fms p99=%.2fms errores=%d%n",
+                    obras, escenario.getKey(), consultas, percentil(latencias, 0.50), percentil(latencias, 0.99), errores);
+        }
+    }
+
+    private int get(String url) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+
+    private static long elegir(Random random, List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private Catalogos sembrarCatalogos() {
+        return transactionTemplate.execute(status -> {
+            List<Long> departamentos = new ArrayList<>();
+            List<Long> localidades = new ArrayList<>();
+            for (int d = 0; d < DEPARTAMENTOS; d++) {
+                Departamento departamento = new Departamento();
+                departamento.setNombreDepartamento("Departamento " + d);
+                entityManager.persist(departamento);
+                departamentos.add(departamento.getId());
+                for (int l = 0; l < LOCALIDADES_POR_DEPARTAMENTO; l++) {
+                    Localidad localidad = new Localidad();
+                    localidad.setNombreLocalidad("Localidad " + d + "-" + l);
+                    localidad.setDepartamento(departamento);
+                    entityManager.persist(localidad);
+                    localidades.add(localidad.getId());
+                }
+            }
+            List<Rubro> rubros = new ArrayList<>();
+            for (int i = 0; i < RUBROS; i++) {
+                Rubro rubro = new Rubro("Rubro " + i);
+                entityManager.persist(rubro);
+                rubros.add(rubro);
+            }
+            List<Long> planes = new ArrayList<>();
+            for (int i = 0; i < PLANES; i++) {
+                PlanProyecto plan = new PlanProyecto();
+                plan.setNombrePlanProyecto("Plan " + i);
+                plan.setSeEjecuta(true);
+                plan.setRubro(rubros.get(i % RUBROS));
+                plan.setPrioridad(Prioridad.values()[(i / RUBROS) % Prioridad.values().length]);
+                entityManager.persist(plan);
+                planes.add(plan.getId());
+            }
+            List<Long> estados = new ArrayList<>();
+            for (int i = 0; i < ESTADOS; i++) {
+                EstadoObra estado = new EstadoObra("Estado " + i);
+                entityManager.persist(estado);
+                estados.add(estado.getId());
+            }
+            List<Long> riesgos = new ArrayList<>();
+            for (int i = 0; i < RIESGOS; i++) {
+                RiesgoTecnico riesgo = new RiesgoTecnico();
+                riesgo.setNroRiesgo(900_000L + i);
+                riesgo.setNaturalezaRiesgo("Riesgo " + i);
+                entityManager.persist(riesgo);
+                riesgos.add(riesgo.getId());
+            }
+            return new Catalogos(departamentos, localidades, rubros.stream().map(Rubro::getId).toList(),
+                    planes, estados, riesgos);
+        });
+    }
+
+    // Los ids de catálogo se pasan como ARRAY literal y se eligen con MOD(X, n) sobre el rango
+    private void sembrarObras(int obras, Catalogos c) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery(
+                    "INSERT INTO obra (id, version, fecha_alta, nro_obra, nombre_obra, tiempo_ejecucion, anio_ejecucion, "
+                            + "fecha_inicio_obra, inversion_final, localidad_id, plan_proyecto_id, estado_actual_id, fecha_estado_actual) "
+                            + "SELECT X, 0, CURRENT_TIMESTAMP, X, CONCAT('Obra ', X), 12, 2015 + MOD(X, 10), "
+                            + "DATEADD(DAY, -MOD(X, 3650), CURRENT_DATE), 50000 + MOD(X * 7919, 200000), "
+                            + arreglo(c.localidades()) + "[MOD(X, " + c.localidades().size() + ") + 1], "
+                            + arreglo(c.planes()) + "[MOD(X / 3, " + c.planes().size() + ") + 1], "
+                            + arreglo(c.estados()) + "[MOD(X / 7, " + c.estados().size() + ") + 1], "
+                            + "CURRENT_TIMESTAMP "
+                            + "FROM SYSTEM_RANGE(1, " + obras + ")")
+                    .executeUpdate();
+            entityManager.createNativeQuery(
+                    "INSERT INTO obra_riesgo (id, fecha_alta, obra_id, riesgo_id) "
+                            + "SELECT X, CURRENT_TIMESTAMP, X, "
+                            + arreglo(c.riesgos()) + "[MOD(X / 11, " + c.riesgos().size() + ") + 1] "
+                            + "FROM SYSTEM_RANGE(1, " + obras + ")")
+                    .executeUpdate();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createNativeQuery("ANALYZE").executeUpdate());
+    }
+
+    private static String arreglo(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "ARRAY[", "]"));
+    }
+
+    private record Catalogos(List<Long> departamentos, List<Long> localidades, List<Long> rubros,
+                             List<Long> planes, List<Long> estados, List<Long> riesgos) {
+    }
+}
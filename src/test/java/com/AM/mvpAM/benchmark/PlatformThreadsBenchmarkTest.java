@@ -0,0 +1,17 @@
+package com.AM.mvpAM.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_platform",
+        "spring.threads.virtual.enabled=false"
+})
+@ActiveProfiles("test")
+class PlatformThreadsBenchmarkTest extends ConcurrencyBenchmarkSupport {
+
+    @Override
+    protected String modo() {
+        return "tomcat pool de plataforma";
+    }
+}
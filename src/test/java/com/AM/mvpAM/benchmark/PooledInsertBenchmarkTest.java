@@ -0,0 +1,17 @@
+package com.AM.mvpAM.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_pooled",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class PooledInsertBenchmarkTest extends InsertBenchmarkSupport {
+
+    @Override
+    protected String estrategia() {
+        return "sequence pooled-lo + batch";
+    }
+}
@@ -0,0 +1,17 @@
+package com.AM.mvpAM.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:bench_virtual",
+        "spring.threads.virtual.enabled=true"
+})
+@ActiveProfiles("test")
+class VirtualThreadsBenchmarkTest extends ConcurrencyBenchmarkSupport {
+
+    @Override
+    protected String modo() {
+        return "hilos virtuales + guarda JDBC";
+    }
+}
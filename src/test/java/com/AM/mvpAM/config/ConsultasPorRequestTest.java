@@ -0,0 +1,74 @@
+package com.AM.mvpAM.config;
+
+import com.AM.mvpAM.DatosDePrueba;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.AM.mvpAM.PresupuestoSql.assertQueryCount;
+import static com.AM.mvpAM.PresupuestoSql.assertQueryCountAtMost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuestos de sentencias SQL por endpoint y header X-Sql-Count. Los
+ * patrones colapsan listas de parámetros y literales, así que las cargas en
+ * lote de distinto tamaño cuentan como la misma sentencia.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:consultas_por_request",
+        "sql.contador.header=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConsultasPorRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void presupuestosPorEndpoint() throws Exception {
+        Long obraId = DatosDePrueba.sembrar(transactionTemplate, entityManager).obraId();
+
+        // Estadísticas desde los agregados en memoria (la primera lectura puede reconciliarlos)
+        // y detalle repetido desde ObraDetalleCache
+        mockMvc.perform(get("/api/dashboard/stats")).andExpect(status().isOk());
+        assertQueryCount(0, () -> mockMvc.perform(get("/api/dashboard/stats")).andExpect(status().isOk()));
+        assertQueryCountAtMost(4, () -> mockMvc.perform(get("/api/obras/" + obraId)).andExpect(status().isOk()));
+        assertQueryCount(0, () -> mockMvc.perform(get("/api/obras/" + obraId)).andExpect(status().isOk()));
+        // Página + count + cantidad de riesgos por lote
+        assertQueryCountAtMost(3, () -> mockMvc.perform(get("/api/obras?page=0&size=10")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void informaLaCantidadEnElHeader() throws Exception {
+        String cantidad = mockMvc.perform(get("/api/obras?page=0&size=10"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(ConsultasPorRequestConfig.HEADER))
+                .andReturn().getResponse().getHeader(ConsultasPorRequestConfig.HEADER);
+        assertTrue(Integer.parseInt(cantidad) > 0);
+    }
+
+    @Test
+    void agrupaPorPatron() {
+        assertEquals("select o.id from obra o where o.id in (?...) and o.nombre=?",
+                ConsultasSql.patron("select o.id  from obra o\n where o.id in (?, ?,?) and o.nombre='x'"));
+        assertEquals(ConsultasSql.patron("select * from obra_riesgo r1_0 where r1_0.obra_id=?"),
+                ConsultasSql.patron("select * from obra_riesgo r1_0 where r1_0.obra_id=15"));
+    }
+}
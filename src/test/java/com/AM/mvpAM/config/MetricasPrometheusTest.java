@@ -0,0 +1,59 @@
+package com.AM.mvpAM.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * El scrape de Prometheus trae los timers por endpoint, el pool, las
+ * estadísticas de Hibernate y los contadores propios; un alta inválida
+ * cuenta como rechazo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricas_prometheus"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exponeMetricasDeEndpointsPoolHibernateYObras() throws Exception {
+        mockMvc.perform(post("/api/obras").contentType(MediaType.APPLICATION_JSON).content("{\"nombreObra\":\"Sin numero\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/obras")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        for (String metrica : new String[]{
+                "http_server_requests_seconds_bucket{",
+                "hikaricp_connections_active{",
+                "hibernate_query_executions_total{",
+                "hibernate_entities_loads_total{",
+                "hibernate_collections_fetches_total{",
+                "hibernate_cache_ratio_aciertos{",
+                "obras_altas_total{",
+                "obras_estado_reintentos_total{",
+                "obras_detalle_cache_aciertos_total{"}) {
+            assertTrue(scrape.contains(metrica), "Falta " + metrica);
+        }
+        assertTrue(scrape.lines().anyMatch(l -> l.startsWith("obras_rechazos_total{") && l.contains("operacion=\"alta\"")
+                && !l.endsWith(" 0.0")), "El alta inválida no se contó como rechazo");
+        assertTrue(scrape.contains("uri=\"/api/obras\""), "Sin timer para GET /api/obras");
+    }
+}
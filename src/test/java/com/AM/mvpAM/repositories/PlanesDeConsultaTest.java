@@ -0,0 +1,318 @@
+package com.AM.mvpAM.repositories;
+
+import com.AM.mvpAM.dto.ObraFiltro;
+import com.AM.mvpAM.entities.*;
+import com.AM.mvpAM.enums.Prioridad;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Regresión de planes: ejecuta cada consulta de ObraRepository y de
+ * ObraEstadoObraRepository, captura el SQL que genera Hibernate y le pide a
+ * H2 el EXPLAIN. Falla si obra o alguna de sus tablas hijas se lee sin una
+ * condición de índice (tableScan, o un índice recorrido entero), es decir,
+ * si falta o deja de usarse un índice de db/migration/V2__indices.sql.
+ * <p>
+ * findListadoTodas no está: lista todas las obras, con o sin baja, y el
+ * recorrido completo es su plan correcto.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:planes_consulta",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.AM.mvpAM.repositories.PlanesDeConsultaTest$SqlCapturado"
+})
+@ActiveProfiles("test")
+class PlanesDeConsultaTest {
+
+    // La mitad de las obras dadas de baja: fecha_baja tiene que ser selectiva, como en producción
+    private static final int OBRAS = 4000;
+
+    private static final List<String> TABLAS_GRANDES =
+            List.of("OBRA", "OBRA_ESTADO_OBRA", "OBRA_RIESGO", "OBRA_RUBRO");
+
+    // Tabla (con alias opcional) seguida del comentario del plan: /* PUBLIC.<índice>: <condición> */
+    private static final Pattern ACCESO = Pattern.compile(
+            "\"PUBLIC\"\\.\"(" + String.join("|", TABLAS_GRANDES) + ")\"(?:\\s+\"[^\"]+\")?\\s*/\\*\\s*([^*]*?)\\s*\\*/");
+
+    /** Registrado como statement_inspector de Hibernate: guarda el SQL de cada sentencia. */
+    public static class SqlCapturado implements StatementInspector {
+        static final List<String> SENTENCIAS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SENTENCIAS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ObraRepository obraRepository;
+
+    @Autowired
+    private ObraEstadoObraRepository obraEstadoObraRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TestFactory
+    Stream<DynamicTest> ningunaConsultaRecorreTablasCompletas() {
+        Referencias r = sembrar();
+        PageRequest pagina = PageRequest.of(2, 20);
+        PageRequest porId = PageRequest.of(2, 20, Sort.by("id"));
+        List<Long> ids = List.of(r.obraActiva(), r.obraActiva() + 2, r.obraActiva() + 4);
+
+        Map<String, Runnable> consultas = new LinkedHashMap<>();
+        consultas.put("sumInversion", obraRepository::sumInversion);
+        consultas.put("findByFechaBajaIsNull", () -> obraRepository.findByFechaBajaIsNull(pagina));
+        consultas.put("findListadoActivas", () -> obraRepository.findListadoActivas(porId));
+        consultas.put("findListadoActivasAfter", () -> obraRepository.findListadoActivasAfter(r.obraActiva(), PageRequest.of(0, 20)));
+        consultas.put("findListadoByIdIn", () -> obraRepository.findListadoByIdIn(ids));
+        consultas.put("streamListadoActivas", () -> {
+            try (Stream<?> s = obraRepository.streamListadoActivas()) {
+                s.limit(10).forEach(o -> { });
+            }
+        });
+        consultas.put("findByIdAndFechaBajaIsNull", () -> obraRepository.findByIdAndFechaBajaIsNull(r.obraActiva()));
+        consultas.put("findConReferenciasByIdAndFechaBajaIsNull", () -> obraRepository.findConReferenciasByIdAndFechaBajaIsNull(r.obraActiva()));
+        consultas.put("findConHistorialById", () -> obraRepository.findConHistorialById(r.obraActiva()));
+        consultas.put("findConRiesgosById", () -> obraRepository.findConRiesgosById(r.obraActiva()));
+        consultas.put("findConRubrosById", () -> obraRepository.findConRubrosById(r.obraActiva()));
+        consultas.put("existsByNroObraAndFechaBajaIsNull", () -> obraRepository.existsByNroObraAndFechaBajaIsNull(r.obraActiva()));
+        consultas.put("existsByNroObraAndFechaBajaIsNullAndIdNot", () -> obraRepository.existsByNroObraAndFechaBajaIsNullAndIdNot(r.obraActiva(), r.obraActiva()));
+        consultas.put("findNroObraActivos", obraRepository::findNroObraActivos);
+        consultas.put("countByPlanProyectoIdAndFechaBajaIsNull", () -> obraRepository.countByPlanProyectoIdAndFechaBajaIsNull(r.plan()));
+        consultas.put("findIdsSinEstadoActual", obraRepository::findIdsSinEstadoActual);
+        consultas.put("countObrasPorEstado", obraRepository::countObrasPorEstado);
+        consultas.put("countByFechaBajaIsNull", obraRepository::countByFechaBajaIsNull);
+        consultas.put("totalesPorEstadoActual", obraRepository::totalesPorEstadoActual);
+        consultas.put("totalesPorPlan", obraRepository::totalesPorPlan);
+        consultas.put("sumInversionPorRubro", obraRepository::sumInversionPorRubro);
+        consultas.put("buscarIds(localidad)", () -> obraRepository.buscarIds(
+                ObraSpecifications.deFiltro(filtro(f -> f.setLocalidadId(r.localidad()))), pagina));
+        consultas.put("buscarIds(departamento+anio)", () -> obraRepository.buscarIds(
+                ObraSpecifications.deFiltro(filtro(f -> {
+                    f.setDepartamentoId(r.departamento());
+                    f.setAnioDesde(2019);
+                    f.setAnioHasta(2021);
+                })), pagina));
+        consultas.put("buscarIds(estado+inversion)", () -> obraRepository.buscarIds(
+                ObraSpecifications.deFiltro(filtro(f -> {
+                    f.setEstadoId(r.estado());
+                    f.setInversionDesde(new BigDecimal("1000"));
+                })), PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "inversionFinal"))));
+        consultas.put("buscarIds(rubro+prioridad)", () -> obraRepository.buscarIds(
+                ObraSpecifications.deFiltro(filtro(f -> {
+                    f.setRubroId(r.rubro());
+                    f.setPrioridad(Prioridad.UNO);
+                })), pagina));
+        consultas.put("buscarIds(riesgo)", () -> obraRepository.buscarIds(
+                ObraSpecifications.deFiltro(filtro(f -> f.setRiesgoId(r.riesgo()))), pagina));
+        consultas.put("countByEstadoObraIdAndObraFechaBajaIsNull", () -> obraEstadoObraRepository.countByEstadoObraIdAndObraFechaBajaIsNull(r.estado()));
+        consultas.put("cerrarEstadosAbiertos", () -> obraEstadoObraRepository.cerrarEstadosAbiertos(r.obraActiva(), LocalDateTime.now()));
+        consultas.put("findEstadosAbiertosByObraIds", () -> obraEstadoObraRepository.findEstadosAbiertosByObraIds(ids));
+
+        return consultas.entrySet().stream().map(consulta -> DynamicTest.dynamicTest(consulta.getKey(), () -> {
+            List<String> sentencias = capturar(consulta.getValue());
+            assertFalse(sentencias.isEmpty(), "La consulta no ejecutó SQL");
+            for (String sql : sentencias) {
+                String plan = explain(sql);
+                List<String> recorridos = recorridosCompletos(plan);
+                if (!recorridos.isEmpty()) {
+                    fail("Recorrido completo de " + recorridos + "\nSQL:  " + sql + "\nPlan: " + plan);
+                }
+            }
+        }));
+    }
+
+    private List<String> capturar(Runnable consulta) {
+        // Dentro de una transacción que se descarta: cerrarEstadosAbiertos modifica datos
+        return transactionTemplate.execute(status -> {
+            entityManager.clear();
+            SqlCapturado.SENTENCIAS.clear();
+            consulta.run();
+            entityManager.flush();
+            List<String> sentencias = new ArrayList<>(SqlCapturado.SENTENCIAS);
+            status.setRollbackOnly();
+            return sentencias;
+        });
+    }
+
+    // Los parámetros quedan en NULL: H2 arma el plan sin mirar sus valores
+    private String explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parametros = ps.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parametros; i++) {
+                ps.setObject(i, null);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                List<String> filas = new ArrayList<>();
+                while (rs.next()) {
+                    filas.add(rs.getString(1));
+                }
+                return String.join("\n", filas);
+            }
+        }
+    }
+
+    static List<String> recorridosCompletos(String plan) {
+        List<String> recorridos = new ArrayList<>();
+        Matcher m = ACCESO.matcher(plan);
+        while (m.find()) {
+            String acceso = m.group(2);
+            if (acceso.endsWith(".tableScan") || !acceso.contains(":")) {
+                recorridos.add(m.group(1) + " (" + acceso + ")");
+            }
+        }
+        return recorridos;
+    }
+
+    private static ObraFiltro filtro(java.util.function.Consumer<ObraFiltro> valores) {
+        ObraFiltro filtro = new ObraFiltro();
+        valores.accept(filtro);
+        return filtro;
+    }
+
+    private Referencias sembrar() {
+        Referencias r = transactionTemplate.execute(status -> {
+            Departamento departamento = new Departamento();
+            departamento.setNombreDepartamento("Capital");
+            entityManager.persist(departamento);
+            List<Long> localidades = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Localidad localidad = new Localidad();
+                localidad.setNombreLocalidad("Localidad " + i);
+                localidad.setDepartamento(departamento);
+                entityManager.persist(localidad);
+                localidades.add(localidad.getId());
+            }
+            List<Rubro> rubros = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                Rubro rubro = new Rubro("Rubro " + i);
+                entityManager.persist(rubro);
+                rubros.add(rubro);
+            }
+            List<Long> planes = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                PlanProyecto plan = new PlanProyecto();
+                plan.setNombrePlanProyecto("Plan " + i);
+                plan.setRubro(rubros.get(i % rubros.size()));
+                plan.setPrioridad(Prioridad.values()[i % Prioridad.values().length]);
+                entityManager.persist(plan);
+                planes.add(plan.getId());
+            }
+            List<Long> estados = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                EstadoObra estado = new EstadoObra("Estado " + i);
+                entityManager.persist(estado);
+                estados.add(estado.getId());
+            }
+            List<Long> riesgos = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                RiesgoTecnico riesgo = new RiesgoTecnico();
+                riesgo.setNroRiesgo(500_000L + i);
+                entityManager.persist(riesgo);
+                riesgos.add(riesgo.getId());
+            }
+            return new Referencias(departamento.getId(), localidades, rubros.get(0).getId(), rubros.stream().map(Rubro::getId).toList(),
+                    planes, estados, riesgos);
+        });
+
+        // Obras pares dadas de baja, cada una con un estado cerrado y uno abierto, un riesgo y un rubro
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery(
+                    "INSERT INTO obra (id, version, fecha_alta, fecha_baja, nro_obra, nombre_obra, anio_ejecucion, "
+                            + "inversion_final, localidad_id, plan_proyecto_id, estado_actual_id, fecha_estado_actual) "
+                            + "SELECT X, 0, CURRENT_TIMESTAMP, "
+                            + "CASE WHEN MOD(X, 2) = 0 THEN DATEADD(MINUTE, -X, CURRENT_TIMESTAMP) END, "
+                            + "X, CONCAT('Obra ', X), 2015 + MOD(X, 10), 500 + MOD(X * 7919, 100000), "
+                            + arreglo(r.localidades()) + "[MOD(X, " + r.localidades().size() + ") + 1], "
+                            + arreglo(r.planes()) + "[MOD(X / 3, " + r.planes().size() + ") + 1], "
+                            + arreglo(r.estados()) + "[MOD(X / 7, " + r.estados().size() + ") + 1], "
+                            + "CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, " + OBRAS + ")")
+                    .executeUpdate();
+            entityManager.createNativeQuery(
+                    "INSERT INTO obra_estado_obra (id, fecha_alta, fecha_hora_inicio, fecha_hora_fin, obra_id, estado_obra_id) "
+                            + "SELECT 2 * X - 1 + T, CURRENT_TIMESTAMP, DATEADD(DAY, -10 + T, CURRENT_TIMESTAMP), "
+                            + "CASE WHEN T = 0 THEN DATEADD(DAY, -9, CURRENT_TIMESTAMP) END, X, "
+                            + arreglo(r.estados()) + "[MOD(X / 7 + T, " + r.estados().size() + ") + 1] "
+                            + "FROM SYSTEM_RANGE(1, " + OBRAS + "), (SELECT X AS T FROM SYSTEM_RANGE(0, 1))")
+                    .executeUpdate();
+            entityManager.createNativeQuery(
+                    "INSERT INTO obra_riesgo (id, fecha_alta, obra_id, riesgo_id) "
+                            + "SELECT X, CURRENT_TIMESTAMP, X, " + arreglo(r.riesgos()) + "[MOD(X, " + r.riesgos().size() + ") + 1] "
+                            + "FROM SYSTEM_RANGE(1, " + OBRAS + ")")
+                    .executeUpdate();
+            entityManager.createNativeQuery(
+                    "INSERT INTO obra_rubro (id, fecha_alta, obra_id, rubro_id) "
+                            + "SELECT X, CURRENT_TIMESTAMP, X, " + arreglo(r.rubros()) + "[MOD(X, " + r.rubros().size() + ") + 1] "
+                            + "FROM SYSTEM_RANGE(1, " + OBRAS + ")")
+                    .executeUpdate();
+        });
+        // Estadísticas de selectividad para el optimizador de H2
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.createNativeQuery("ANALYZE").executeUpdate());
+        return r;
+    }
+
+    private static String arreglo(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "ARRAY[", "]"));
+    }
+
+    private record Referencias(Long departamento, List<Long> localidades, Long rubro, List<Long> rubros,
+                               List<Long> planes, List<Long> estados, List<Long> riesgos) {
+        Long obraActiva() {
+            return 1001L;
+        }
+
+        Long localidad() {
+            return localidades.get(0);
+        }
+
+        Long plan() {
+            return planes.get(0);
+        }
+
+        Long estado() {
+            return estados.get(0);
+        }
+
+        Long riesgo() {
+            return riesgos.get(0);
+        }
+    }
+}
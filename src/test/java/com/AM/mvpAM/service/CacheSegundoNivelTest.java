@@ -0,0 +1,55 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.entities.Rubro;
+import com.AM.mvpAM.repositories.RubroRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Los catálogos se resuelven desde la caché de segundo nivel y una baja
+ * lógica hecha por el servicio se ve en la lectura siguiente.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache_segundo_nivel",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class CacheSegundoNivelTest {
+
+    @Autowired
+    private RubroRepository rubroRepository;
+
+    @Autowired
+    private CatalogoAbmService catalogoAbmService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void lecturaPorIdSinConsultaYBajaInvalida() {
+        Rubro rubro = new Rubro();
+        rubro.setNombreRubro("Cache");
+        Long id = catalogoAbmService.crearRubro(rubro).getId();
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        transactionTemplate.executeWithoutResult(status -> rubroRepository.findActivoById(id).orElseThrow());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertTrue(stats.getSecondLevelCacheHitCount() > 0);
+
+        assertTrue(catalogoAbmService.darDeBajaRubro(id));
+        assertTrue(transactionTemplate.execute(status -> rubroRepository.findActivoById(id)).isEmpty());
+    }
+}
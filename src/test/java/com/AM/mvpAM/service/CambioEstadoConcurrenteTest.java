@@ -0,0 +1,102 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.DatosDePrueba;
+import com.AM.mvpAM.DatosDePrueba.Sembrado;
+import com.AM.mvpAM.entities.Obra;
+import com.AM.mvpAM.entities.ObraEstadoObra;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Muchas transiciones concurrentes sobre la misma obra: al final queda un
+ * único estado abierto, coincide con estadoActual, y el historial tiene
+ * exactamente un registro por transición confirmada.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cambio_estado_concurrente"
+})
+@ActiveProfiles("test")
+class CambioEstadoConcurrenteTest {
+
+    private static final int HILOS = 8;
+    private static final int TRANSICIONES_POR_HILO = 10;
+
+    @Autowired
+    private ObraService obraService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void transicionesConcurrentesDejanUnSoloEstadoAbierto() throws Exception {
+        Sembrado datos = DatosDePrueba.sembrar(transactionTemplate, entityManager);
+        Long obraId = datos.obraId();
+        AtomicInteger confirmadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                int hilo = h;
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < TRANSICIONES_POR_HILO; i++) {
+                        Long estadoId = (hilo + i) % 2 == 0 ? datos.ejecucionId() : datos.paralizadaId();
+                        try {
+                            obraService.cambiarEstado(obraId, estadoId).orElseThrow();
+                            confirmadas.incrementAndGet();
+                        } catch (ConcurrencyFailureException e) {
+                            // Reintentos agotados: la transición no debe haber dejado rastro
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(confirmadas.get() > 0);
+        transactionTemplate.executeWithoutResult(status -> {
+            Obra obra = entityManager.find(Obra.class, obraId);
+            List<ObraEstadoObra> abiertos = entityManager.createQuery(
+                            "SELECT oe FROM ObraEstadoObra oe WHERE oe.obra.id = :id AND oe.fechaHoraFin IS NULL",
+                            ObraEstadoObra.class)
+                    .setParameter("id", obraId)
+                    .getResultList();
+            Long historial = entityManager.createQuery(
+                            "SELECT COUNT(oe) FROM ObraEstadoObra oe WHERE oe.obra.id = :id", Long.class)
+                    .setParameter("id", obraId)
+                    .getSingleResult();
+
+            assertEquals(1, abiertos.size());
+            assertEquals(obra.getEstadoActual().getId(), abiertos.get(0).getEstadoObra().getId());
+            assertEquals(confirmadas.get(), historial.intValue());
+        });
+    }
+}
@@ -0,0 +1,53 @@
+package com.AM.mvpAM.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * El generador (perfil seed) corre al arrancar el contexto, en varios hilos y
+ * lotes chicos, y deja un grafo consistente: un único estado abierto por obra
+ * que coincide con estadoActual, al menos un rubro y riesgos sin repetir.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:generador_datos",
+        "seed.obras=500",
+        "seed.lote=40",
+        "seed.hilos=4",
+        "seed.departamentos=3",
+        "seed.localidades-por-departamento=4",
+        "seed.planes-por-rubro=3",
+        "seed.riesgos=30"
+})
+@ActiveProfiles({"test", "seed"})
+@Transactional
+class GeneradorDatosTest {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void generaTodasLasObrasConUnGrafoConsistente() {
+        assertEquals(500L, contar("SELECT COUNT(o) FROM Obra o WHERE o.nroObra > :base"));
+        assertEquals(0L, contar("SELECT COUNT(o) FROM Obra o WHERE o.nroObra > :base AND "
+                + "(SELECT COUNT(oe) FROM ObraEstadoObra oe WHERE oe.obra = o AND oe.fechaHoraFin IS NULL) <> 1"));
+        assertEquals(0L, contar("SELECT COUNT(o) FROM Obra o WHERE o.nroObra > :base AND NOT EXISTS ("
+                + "SELECT oe FROM ObraEstadoObra oe WHERE oe.obra = o AND oe.fechaHoraFin IS NULL "
+                + "AND oe.estadoObra = o.estadoActual AND oe.fechaHoraInicio = o.fechaEstadoActual)"));
+        assertEquals(0L, contar("SELECT COUNT(o) FROM Obra o WHERE o.nroObra > :base AND "
+                + "NOT EXISTS (SELECT r FROM ObraRubro r WHERE r.obra = o)"));
+        assertEquals(0L, contar("SELECT COUNT(r) FROM ObraRiesgo r WHERE r.obra.nroObra > :base AND EXISTS ("
+                + "SELECT r2 FROM ObraRiesgo r2 WHERE r2.obra = r.obra AND r2.riesgoTecnico = r.riesgoTecnico AND r2.id <> r.id)"));
+    }
+
+    private long contar(String jpql) {
+        return entityManager.createQuery(jpql, Long.class)
+                .setParameter("base", GeneradorDatos.NRO_OBRA_BASE)
+                .getSingleResult();
+    }
+}
@@ -0,0 +1,36 @@
+package com.AM.mvpAM.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Altas, bajas y búsquedas aleatorias contra un HashSet de referencia, con
+ * un rango chico para forzar colisiones, cadenas de sondeo y redimensiones.
+ */
+class LongHashSetTest {
+
+    @Test
+    void secuenciaAleatoriaCoincideConHashSet() {
+        LongHashSet conjunto = new LongHashSet(4);
+        Set<Long> referencia = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long valor = random.nextInt(2_000) - 100;
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(referencia.add(valor), conjunto.add(valor));
+                case 1 -> assertEquals(referencia.remove(valor), conjunto.remove(valor));
+                default -> assertEquals(referencia.contains(valor), conjunto.contains(valor));
+            }
+            assertEquals(referencia.size(), conjunto.size());
+        }
+        for (long valor = -100; valor < 1_900; valor++) {
+            assertEquals(referencia.contains(valor), conjunto.contains(valor));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.DatosDePrueba;
+import com.AM.mvpAM.DatosDePrueba.Sembrado;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El detalle de una obra se sirve desde la caché hasta que un cambio de
+ * estado confirmado incrementa su versión.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:obra_detalle_cache"
+})
+@ActiveProfiles("test")
+class ObraDetalleCacheTest {
+
+    @Autowired
+    private ObraDetalleCache obraDetalleCache;
+
+    @Autowired
+    private ObraService obraService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void cambioDeEstadoInvalidaElDetalle() {
+        Sembrado datos = DatosDePrueba.sembrar(transactionTemplate, entityManager);
+        Long obraId = datos.obraId();
+
+        byte[] primero = obraDetalleCache.detalle(obraId).orElseThrow();
+        long aciertos = obraDetalleCache.getAciertos();
+        assertSame(primero, obraDetalleCache.detalle(obraId).orElseThrow());
+        assertEquals(aciertos + 1, obraDetalleCache.getAciertos());
+
+        obraService.cambiarEstado(obraId, datos.ejecucionId()).orElseThrow();
+        String despues = new String(obraDetalleCache.detalle(obraId).orElseThrow(), StandardCharsets.UTF_8);
+        assertTrue(despues.contains("En ejecucion"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.AM.mvpAM.service;
+
+import com.AM.mvpAM.DatosDePrueba;
+import com.AM.mvpAM.DatosDePrueba.Sembrado;
+import com.AM.mvpAM.entities.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * El alta de una obra ejecuta la misma cantidad de sentencias con 1 riesgo
+ * que con 25: las referencias se cargan en lote y los vínculos se insertan
+ * en un batch JDBC.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:obra_query_count",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class ObraServiceQueryCountTest {
+
+    @Autowired
+    private ObraService obraService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void crearEjecutaSentenciasConstantes() {
+        Sembrado refs = DatosDePrueba.sembrar(transactionTemplate, entityManager, 0, 25, 1L);
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Calentamiento: primeras llamadas a las secuencias de ids
+        obraService.crear(nuevaObra(1L, refs, 1));
+
+        stats.clear();
+        Obra conUno = obraService.crear(nuevaObra(2L, refs, 1));
+        long sentenciasConUno = stats.getPrepareStatementCount();
+
+        stats.clear();
+        Obra conVeinticinco = obraService.crear(nuevaObra(3L, refs, 25));
+        long sentenciasConVeinticinco = stats.getPrepareStatementCount();
+
+        assertEquals(1, conUno.getObraRiesgos().size());
+        assertEquals(25, conVeinticinco.getObraRiesgos().size());
+        assertNotNull(conVeinticinco.getEstadoActual());
+        assertEquals(sentenciasConUno, sentenciasConVeinticinco);
+    }
+
+    private Obra nuevaObra(Long nro, Sembrado refs, int riesgos) {
+        Obra obra = new Obra();
+        obra.setNroObra(nro);
+        obra.setNombreObra("Obra " + nro);
+        obra.setTiempoEjecucion(12);
+        obra.setAnioEjecucion(2024);
+        obra.setFechaInicioObra(LocalDate.now());
+        obra.setInversionFinal(new BigDecimal("100000"));
+        Localidad localidad = new Localidad();
+        localidad.setId(refs.localidadId());
+        obra.setLocalidad(localidad);
+        PlanProyecto plan = new PlanProyecto();
+        plan.setId(refs.planId());
+        obra.setPlanProyecto(plan);
+        for (int i = 0; i < riesgos; i++) {
+            RiesgoTecnico riesgo = new RiesgoTecnico();
+            riesgo.setId(refs.riesgoIds().get(i));
+            ObraRiesgo vinculo = new ObraRiesgo();
+            vinculo.setRiesgoTecnico(riesgo);
+            obra.getObraRiesgos().add(vinculo);
+        }
+        return obra;
+    }
+}